@@ -0,0 +1,197 @@
+package analysis;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import components.BoardSnapshot;
+import components.Color;
+import components.Coordinate;
+
+/**
+ * 
+ * A simple negamax search with alpha-beta pruning over {@link BoardSnapshot}s, limited by depth and by a node budget.
+ * 
+ * </br></br>
+ * The search deepens one ply at a time, trying the best move from the previous depth first. 
+ * If the node budget runs out partway through a depth, the result from the last depth that finished is returned 
+ * (depth 1 always finishes, so there's always a move).
+ * 
+ * </br></br>
+ * Scores are from the point of view of the side to move:
+ * <ul>
+ * <li>Positions where the game is over score {@link #WIN} plus the final disc difference for a win, 
+ * minus {@link #WIN} plus the disc difference for a loss, and the disc difference (0) for a draw</li>
+ * <li>Everything else is scored by corners (100 each), mobility (10 per move) and discs (1 each), compared with the opponent</li>
+ * </ul>
+ * 
+ * An AlphaBetaSearch only holds its settings, so one object can be used by many threads at once.
+ * 
+ * @see SearchResult
+ */
+public class AlphaBetaSearch {
+	
+	/**
+	 * The move that stands for a pass (the same "no move" Coordinate the example AIs return).
+	 */
+	public static final Coordinate PASS = new Coordinate(-1, -1);
+	
+	/**
+	 * The score of a won game, before adding the disc difference.
+	 */
+	public static final int WIN = 10000;
+	
+	private static final int INFINITY = Integer.MAX_VALUE / 2;
+	
+	private static final long CORNERS = 0x8100000000000081L;
+	
+	private final int maxDepth;
+	private final long nodeBudget;
+	
+	/**
+	 * Standard constructor for the AlphaBetaSearch class.
+	 * 
+	 * @param maxDepth - the deepest search to run, in plies
+	 * @param nodeBudget - the most positions to look at per search (once depth 1 is done), or {@link Long#MAX_VALUE} for no limit
+	 */
+	public AlphaBetaSearch(int maxDepth, long nodeBudget) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("maxDepth must be at least 1");
+		}
+		this.maxDepth = maxDepth;
+		this.nodeBudget = nodeBudget;
+	}
+	
+	/**
+	 * Searches a position for the side to move.
+	 * 
+	 * @param position - the position to search
+	 * @return the best move, score and principal variation
+	 */
+	public SearchResult search(BoardSnapshot position) {
+		if (position.isGameOver()) {
+			return new SearchResult(null, evaluate(position), new ArrayList<Coordinate>(), 0, 1);
+		}
+		
+		Search search = new Search();
+		List<Coordinate> bestLine = new LinkedList<Coordinate>();
+		int bestScore = 0;
+		int completedDepth = 0;
+		
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			List<Coordinate> line = new LinkedList<Coordinate>();
+			search.firstMove = bestLine.isEmpty() ? null : bestLine.get(0);
+			search.budget = depth == 1 ? Long.MAX_VALUE : nodeBudget;
+			try {
+				bestScore = search.negamax(position, depth, -INFINITY, INFINITY, false, line);
+			} catch (OutOfNodes e) {
+				break;
+			}
+			bestLine = line;
+			completedDepth = depth;
+		}
+		
+		return new SearchResult(bestLine.get(0), bestScore, new ArrayList<Coordinate>(bestLine), completedDepth, search.nodes);
+	}
+	
+	/**
+	 * Scores a position for the side to move without searching.
+	 * 
+	 * @param position - the position to score
+	 * @return the score
+	 */
+	public static int evaluate(BoardSnapshot position) {
+		Color me = position.getToMove();
+		Color them = me.flip();
+		long mine = me == Color.B ? position.getBlack() : position.getWhite();
+		long theirs = me == Color.B ? position.getWhite() : position.getBlack();
+		int discs = Long.bitCount(mine) - Long.bitCount(theirs);
+		
+		if (position.isGameOver()) {
+			if (discs > 0) {
+				return WIN + discs;
+			} else if (discs < 0) {
+				return -WIN + discs;
+			} else {
+				return 0;
+			}
+		}
+		
+		int corners = Long.bitCount(mine & CORNERS) - Long.bitCount(theirs & CORNERS);
+		int mobility = position.countValidMoves(me) - position.countValidMoves(them);
+		return 100 * corners + 10 * mobility + discs;
+	}
+	
+	/**
+	 * The state of one call to {@link AlphaBetaSearch#search(BoardSnapshot)}.
+	 */
+	private static class Search {
+		long nodes;
+		long budget;
+		Coordinate firstMove;
+		
+		/**
+		 * @param passed - whether the previous ply was a pass
+		 * @param line - filled in with the principal variation from this position
+		 */
+		int negamax(BoardSnapshot position, int depth, int alpha, int beta, boolean passed, List<Coordinate> line) {
+			if (++nodes > budget) {
+				throw new OutOfNodes();
+			}
+			
+			Color me = position.getToMove();
+			List<Coordinate> moves = position.getValidMoves(me);
+			if (moves.isEmpty()) {
+				if (passed) {
+					// Neither side can move, so the game is over
+					return evaluate(position);
+				}
+				List<Coordinate> childLine = new LinkedList<Coordinate>();
+				int score = -negamax(position.pass(), depth, -beta, -alpha, true, childLine);
+				line.add(PASS);
+				line.addAll(childLine);
+				return score;
+			}
+			if (depth == 0) {
+				return evaluate(position);
+			}
+			
+			// Try the best move from the last iteration first, since it's the most likely to cause cutoffs
+			if (firstMove != null && moves.remove(firstMove)) {
+				moves.add(0, firstMove);
+			}
+			firstMove = null;
+			
+			int best = -INFINITY;
+			for (Coordinate move : moves) {
+				List<Coordinate> childLine = new LinkedList<Coordinate>();
+				int score = -negamax(position.play(move), depth - 1, -beta, -alpha, false, childLine);
+				if (score > best) {
+					best = score;
+					line.clear();
+					line.add(move);
+					line.addAll(childLine);
+				}
+				if (best > alpha) {
+					alpha = best;
+				}
+				if (alpha >= beta) {
+					break;
+				}
+			}
+			return best;
+		}
+	}
+	
+	/**
+	 * Thrown to unwind a search when its node budget runs out.
+	 */
+	private static class OutOfNodes extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		OutOfNodes() {
+			super(null, null, false, false);
+		}
+	}
+}
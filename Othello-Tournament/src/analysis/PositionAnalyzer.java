@@ -0,0 +1,431 @@
+package analysis;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import components.BoardSnapshot;
+import components.Color;
+import components.Coordinate;
+import components.Player;
+import metrics.Metrics;
+import metrics.MoveTimer;
+
+/**
+ * 
+ * Scores a file of positions offline, using every core, and writes the best move, score and principal variation for each one.
+ * This is meant for jobs like labelling training data or checking opening book lines.
+ * 
+ * </br></br>
+ * Each input line holds one position: 64 characters for the squares (row by row, starting at A1), a space, and the side to move.
+ * Black pieces are <b>X</b> or <b>B</b>, white pieces are <b>O</b> or <b>W</b>, and empty squares are <b>-</b> or <b>.</b>
+ * Blank lines and lines starting with <b>#</b> are skipped.
+ * <pre>
+ * 	---------------------------OX------XO--------------------------- X
+ * </pre>
+ * 
+ * Each output line is tab-separated: the input line number, the position, the best move, the score, and the principal variation.
+ * Passes are written as <b>PA</b>, and a position where the game is already over has <b>--</b> as its move. 
+ * Output is in the same order as the input.
+ * 
+ * </br></br>
+ * One bad line doesn't stop the batch. If a line can't be parsed or analyzed, its move is <b>ERROR</b>, 
+ * and if a Player returns an illegal move, its move is <b>INVALID</b>. 
+ * Either way the reason goes in the principal variation column and the analyzer carries on with the next line.
+ * 
+ * </br></br>
+ * Each position is analyzed as one independent task on a {@link ForkJoinPool}, whose idle workers take queued positions from busy ones. 
+ * Only a limited number of positions are read ahead of the output, so memory use stays flat however big the file is, 
+ * and a slow output stream slows down the reading instead of letting results pile up.
+ * 
+ * </br></br>
+ * Usage:
+ * <pre>
+ * 	java analysis.PositionAnalyzer [options] input [output]
+ * 
+ * 	--depth N	search depth in plies (default 8)
+ * 	--nodes N	node budget per position (default unlimited)
+ * 	--player CLASS	ask this Player class for a move instead of searching (no score or PV; can't be used with --depth or --nodes)
+ * 	--threads N	number of worker threads (default: number of cores)
+ * 	--in-flight N	most positions being worked on at once (default: 4 per thread)
+ * </pre>
+ * With no output file, results go to standard output. An input of <b>-</b> reads from standard input.
+ * 
+ * @see AlphaBetaSearch
+ */
+public class PositionAnalyzer {
+	
+	/**
+	 * The name the analyzer's statistics are recorded under in {@link Metrics}.
+	 */
+	public static final String METRICS_NAME = "PositionAnalyzer";
+	
+	private final AlphaBetaSearch search;
+	private final Class<? extends Player> playerClass;
+	private final ForkJoinPool pool;
+	private final int maxInFlight;
+	
+	/**
+	 * Creates an analyzer that runs an {@link AlphaBetaSearch} on each position.
+	 * 
+	 * @param search - the search to run
+	 * @param pool - the pool to run it on
+	 * @param maxInFlight - the most positions to work on at once
+	 */
+	public PositionAnalyzer(AlphaBetaSearch search, ForkJoinPool pool, int maxInFlight) {
+		this(search, null, pool, maxInFlight);
+	}
+	
+	/**
+	 * Creates an analyzer that asks a {@link Player} for a move in each position. 
+	 * A new Player is created for every position (with the side to move as its color), so Players don't need to be thread-safe.
+	 * 
+	 * @param playerClass - a Player class with a public (String, {@link Color}) constructor
+	 * @param pool - the pool to run it on
+	 * @param maxInFlight - the most positions to work on at once
+	 */
+	public PositionAnalyzer(Class<? extends Player> playerClass, ForkJoinPool pool, int maxInFlight) {
+		this(null, playerClass, pool, maxInFlight);
+	}
+	
+	private PositionAnalyzer(AlphaBetaSearch search, Class<? extends Player> playerClass, ForkJoinPool pool, int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be at least 1");
+		}
+		this.search = search;
+		this.playerClass = playerClass;
+		this.pool = pool;
+		this.maxInFlight = maxInFlight;
+	}
+	
+	/**
+	 * Analyzes every position read from <i>in</i>, writing the results to <i>out</i> in the same order.
+	 * 
+	 * @param in - the positions, one per line
+	 * @param out - where to write the results
+	 * @return the number of positions read (including ones that were written as errors)
+	 * @throws IOException if reading or writing fails
+	 */
+	public long analyze(Reader in, Writer out) throws IOException {
+		BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+		Deque<ForkJoinTask<String>> inFlight = new ArrayDeque<ForkJoinTask<String>>(maxInFlight);
+		long count = 0;
+		long lineNumber = 0;
+		
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				
+				// Wait for the oldest position before reading another one, so at most maxInFlight are in memory
+				if (inFlight.size() >= maxInFlight) {
+					out.write(inFlight.removeFirst().join());
+				}
+				inFlight.addLast(pool.submit(ForkJoinTask.adapt(new Analysis(lineNumber, line))));
+				count++;
+			}
+			while (!inFlight.isEmpty()) {
+				out.write(inFlight.removeFirst().join());
+			}
+		} finally {
+			for (ForkJoinTask<String> task : inFlight) {
+				task.cancel(true);
+			}
+		}
+		out.flush();
+		return count;
+	}
+	
+	/**
+	 * Parses one line of the input format described in {@link PositionAnalyzer}.
+	 * 
+	 * @param line - the line to parse
+	 * @param lineNumber - the line's number, for error messages
+	 * @return the position
+	 * @throws IllegalArgumentException if the line isn't a valid position
+	 */
+	public static BoardSnapshot parse(String line, long lineNumber) {
+		String[] parts = line.trim().split("\\s+");
+		int squares = BoardSnapshot.WIDTH * BoardSnapshot.WIDTH;
+		if (parts.length != 2 || parts[0].length() != squares || parts[1].length() != 1) {
+			throw new IllegalArgumentException("Line " + lineNumber + ": expected " + squares + " squares and the side to move");
+		}
+		
+		long black = 0;
+		long white = 0;
+		for (int i = 0; i < squares; i++) {
+			switch (parts[0].charAt(i)) {
+			case 'X':
+			case 'B':
+			case 'x':
+			case 'b':
+				black |= 1L << i;
+				break;
+			case 'O':
+			case 'W':
+			case 'o':
+			case 'w':
+				white |= 1L << i;
+				break;
+			case '-':
+			case '.':
+				break;
+			default:
+				throw new IllegalArgumentException("Line " + lineNumber + ": bad square '" + parts[0].charAt(i) + "'");
+			}
+		}
+		
+		Color toMove = toColor(parts[1].charAt(0));
+		if (toMove == Color.EMPTY) {
+			throw new IllegalArgumentException("Line " + lineNumber + ": bad side to move '" + parts[1] + "'");
+		}
+		return new BoardSnapshot(black, white, toMove);
+	}
+	
+	/**
+	 * Writes a move the same way Game.convertCoordinate() does (e.g. "D3"), with "PA" for a pass.
+	 * 
+	 * @param move - the move to write
+	 * @return the move as text
+	 */
+	public static String formatMove(Coordinate move) {
+		if (move == null) {
+			return "--";
+		}
+		if (move.equals(AlphaBetaSearch.PASS)) {
+			return "PA";
+		}
+		if (move.getRow() < 0 || move.getRow() >= BoardSnapshot.WIDTH || move.getCol() < 0 || move.getCol() >= BoardSnapshot.WIDTH) {
+			return "(" + move.getRow() + ", " + move.getCol() + ")";
+		}
+		return "ABCDEFGH".charAt(move.getCol()) + Integer.toString(move.getRow() + 1);
+	}
+	
+	/**
+	 * Analyzes a file of positions from the command line. See {@link PositionAnalyzer} for the options.
+	 */
+	public static void main(String[] args) throws Exception {
+		int depth = 8;
+		long nodes = Long.MAX_VALUE;
+		boolean searchOptions = false;
+		String player = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int maxInFlight = -1;
+		String input = null;
+		String output = null;
+		
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+				case "--depth":
+					depth = Integer.parseInt(args[++i]);
+					searchOptions = true;
+					break;
+				case "--nodes":
+					nodes = Long.parseLong(args[++i]);
+					searchOptions = true;
+					break;
+				case "--player":
+					player = args[++i];
+					break;
+				case "--threads":
+					threads = Integer.parseInt(args[++i]);
+					break;
+				case "--in-flight":
+					maxInFlight = Integer.parseInt(args[++i]);
+					break;
+				default:
+					if (args[i].startsWith("--") || output != null) {
+						usage("Unexpected argument: " + args[i]);
+					} else if (input == null) {
+						input = args[i];
+					} else {
+						output = args[i];
+					}
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			usage(args[args.length - 1] + " needs a value");
+		} catch (NumberFormatException e) {
+			usage("Not a number: " + e.getMessage());
+		}
+		if (input == null) {
+			usage("No input file");
+		}
+		if (player != null && searchOptions) {
+			usage("--depth and --nodes only apply to the search, not to --player");
+		}
+		if (depth < 1 || nodes < 1 || threads < 1 || maxInFlight == 0 || maxInFlight < -1) {
+			usage("--depth, --nodes, --threads and --in-flight must be at least 1");
+		}
+		if (maxInFlight < 0) {
+			maxInFlight = 4 * threads;
+		}
+		
+		Metrics.registerFlightRecorderEvents();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		PositionAnalyzer analyzer = player == null 
+				? new PositionAnalyzer(new AlphaBetaSearch(depth, nodes), pool, maxInFlight)
+				: new PositionAnalyzer(Class.forName(player).asSubclass(Player.class), pool, maxInFlight);
+		
+		long start = System.nanoTime();
+		long count;
+		try (Reader in = input.equals("-") 
+					? new InputStreamReader(System.in, StandardCharsets.UTF_8) 
+					: Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+				Writer out = output == null 
+					? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) 
+					: Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+			count = analyzer.analyze(in, out);
+		} finally {
+			pool.shutdown();
+		}
+		
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long totalNodes = Metrics.player(METRICS_NAME).getNodes();
+		System.err.printf("Analyzed %d positions in %.1fs on %d threads (%d nodes, %.0f nodes/s)%n", 
+				count, seconds, threads, totalNodes, totalNodes / seconds);
+	}
+	
+	/**
+	 * Prints what was wrong with the command line, followed by the usage message, and exits.
+	 */
+	private static void usage(String problem) {
+		System.err.println(problem);
+		System.err.println("Usage: java analysis.PositionAnalyzer [--depth N] [--nodes N] [--player CLASS] [--threads N] [--in-flight N] input [output]");
+		System.exit(2);
+	}
+	
+	private static Color toColor(char c) {
+		switch (c) {
+		case 'X':
+		case 'B':
+		case 'x':
+		case 'b':
+			return Color.B;
+		case 'O':
+		case 'W':
+		case 'o':
+		case 'w':
+			return Color.W;
+		default:
+			return Color.EMPTY;
+		}
+	}
+	
+	private static String formatPosition(BoardSnapshot position) {
+		StringBuilder sb = new StringBuilder(BoardSnapshot.WIDTH * BoardSnapshot.WIDTH + 2);
+		for (int row = 0; row < BoardSnapshot.WIDTH; row++) {
+			for (int col = 0; col < BoardSnapshot.WIDTH; col++) {
+				Color c = position.get(row, col);
+				sb.append(c == Color.B ? 'X' : c == Color.W ? 'O' : '-');
+			}
+		}
+		return sb.append(' ').append(position.getToMove() == Color.B ? 'X' : 'O').toString();
+	}
+	
+	/**
+	 * Analyzes one position and formats the output line. Any problem with the line becomes an error record instead of an exception, 
+	 * so one bad position can't stop the rest of the batch.
+	 */
+	private class Analysis implements Callable<String> {
+		
+		private final long lineNumber;
+		private final String line;
+		
+		Analysis(long lineNumber, String line) {
+			this.lineNumber = lineNumber;
+			this.line = line;
+		}
+		
+		@Override
+		public String call() {
+			BoardSnapshot position;
+			try {
+				position = parse(line, lineNumber);
+			} catch (IllegalArgumentException e) {
+				return record(line, "ERROR", "", e.getMessage());
+			}
+			
+			try {
+				return search != null ? searchMove(position) : playerMove(position);
+			} catch (OutOfMemoryError | ThreadDeath e) {
+				// The whole process is in trouble (or being stopped), not just this position
+				throw e;
+			} catch (Throwable e) {
+				// Players can fail with Errors too (a StackOverflowError from a deep recursion, say), and that's still just this position's problem
+				return record(formatPosition(position), "ERROR", "", e.toString());
+			}
+		}
+		
+		private String searchMove(BoardSnapshot position) {
+			MoveTimer timer = Metrics.startMove(METRICS_NAME, position.getEmpties());
+			SearchResult result;
+			try {
+				result = search.search(position);
+			} finally {
+				timer.stop();
+			}
+			Metrics.player(METRICS_NAME).addNodes(result.getNodes());
+			
+			StringBuilder pv = new StringBuilder();
+			List<Coordinate> moves = result.getPrincipalVariation();
+			for (int i = 0; i < moves.size(); i++) {
+				pv.append(i == 0 ? "" : " ").append(formatMove(moves.get(i)));
+			}
+			return record(formatPosition(position), formatMove(result.getBestMove()), Integer.toString(result.getScore()), pv.toString());
+		}
+		
+		private String playerMove(BoardSnapshot position) {
+			Color toMove = position.getToMove();
+			if (position.isGameOver()) {
+				return record(formatPosition(position), formatMove(null), "", "");
+			}
+			if (position.countValidMoves(toMove) == 0) {
+				return record(formatPosition(position), formatMove(AlphaBetaSearch.PASS), "", "");
+			}
+			
+			Player p;
+			try {
+				p = playerClass.getConstructor(String.class, Color.class).newInstance(playerClass.getSimpleName(), toMove);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Couldn't create " + playerClass.getName(), e);
+			}
+			p.setNodeCounter(Metrics.player(METRICS_NAME));
+			
+			MoveTimer timer = Metrics.startMove(METRICS_NAME, position.getEmpties());
+			Coordinate move;
+			try {
+				move = p.makeMove(position);
+			} finally {
+				timer.stop();
+			}
+			
+			if (move == null || !position.isValidMove(toMove, move)) {
+				return record(formatPosition(position), "INVALID", "", "illegal move " + (move == null ? "null" : formatMove(move)));
+			}
+			return record(formatPosition(position), formatMove(move), "", "");
+		}
+		
+		private String record(String position, String move, String score, String pv) {
+			return lineNumber + "\t" + position + "\t" + move + "\t" + score + "\t" + pv + "\n";
+		}
+	}
+}
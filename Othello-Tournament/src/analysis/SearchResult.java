@@ -0,0 +1,101 @@
+package analysis;
+
+import java.util.Collections;
+import java.util.List;
+
+import components.Coordinate;
+
+/**
+ * 
+ * The outcome of searching one position: the move to play, how good the position is, and the line of play the search expects.
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #bestMove}, {@link #score}, {@link #principalVariation}, {@link #depth}, {@link #nodes}
+ * 
+ * @see AlphaBetaSearch
+ */
+public class SearchResult {
+	
+	/**
+	 * The move to play. This is {@link AlphaBetaSearch#PASS} if the side to move has to pass, 
+	 * and <i>null</i> if the game is already over.
+	 */
+	private final Coordinate bestMove;
+	
+	/**
+	 * The score of the position for the side to move (see {@link AlphaBetaSearch} for the scale).
+	 */
+	private final int score;
+	
+	/**
+	 * The sequence of moves the search expects both sides to play, starting with {@link #bestMove}.
+	 */
+	private final List<Coordinate> principalVariation;
+	
+	/**
+	 * The deepest search that finished, in plies.
+	 */
+	private final int depth;
+	
+	/**
+	 * The number of positions looked at.
+	 */
+	private final long nodes;
+	
+	/**
+	 * Standard constructor for the SearchResult class.
+	 * 
+	 * @param bestMove - the move to play
+	 * @param score - the score for the side to move
+	 * @param principalVariation - the expected line of play
+	 * @param depth - the deepest search that finished
+	 * @param nodes - the number of positions looked at
+	 */
+	public SearchResult(Coordinate bestMove, int score, List<Coordinate> principalVariation, int depth, long nodes) {
+		this.bestMove = bestMove;
+		this.score = score;
+		this.principalVariation = Collections.unmodifiableList(principalVariation);
+		this.depth = depth;
+		this.nodes = nodes;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #bestMove}
+	 */
+	public Coordinate getBestMove() {
+		return bestMove;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #score}
+	 */
+	public int getScore() {
+		return score;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #principalVariation}
+	 */
+	public List<Coordinate> getPrincipalVariation() {
+		return principalVariation;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #depth}
+	 */
+	public int getDepth() {
+		return depth;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #nodes}
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+}
@@ -0,0 +1,66 @@
+package checkpoint;
+
+import components.Color;
+import components.Coordinate;
+
+/**
+ * 
+ * One move from a game in progress, as stored in a {@link TournamentJournal}.
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #color}, {@link #coordinate}, {@link #nanos}
+ */
+public class RecordedMove {
+	
+	/**
+	 * The {@link Color} of the piece that was placed.
+	 */
+	private final Color color;
+	
+	/**
+	 * Where the piece was placed.
+	 */
+	private final Coordinate coordinate;
+	
+	/**
+	 * How much time the player's ply took, in nanoseconds. This is what the players' clocks are rebuilt from.
+	 */
+	private final long nanos;
+	
+	/**
+	 * Standard constructor for the RecordedMove class.
+	 * 
+	 * @param color - the color of the piece that was placed
+	 * @param coordinate - where the piece was placed
+	 * @param nanos - how long the ply took, in nanoseconds
+	 */
+	public RecordedMove(Color color, Coordinate coordinate, long nanos) {
+		this.color = color;
+		this.coordinate = coordinate;
+		this.nanos = nanos;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #color}
+	 */
+	public Color getColor() {
+		return color;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #coordinate}
+	 */
+	public Coordinate getCoordinate() {
+		return coordinate;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #nanos}
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+}
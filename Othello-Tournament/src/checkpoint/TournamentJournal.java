@@ -0,0 +1,361 @@
+package checkpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import components.Color;
+import components.Coordinate;
+import ratings.GameResult;
+
+/**
+ * 
+ * An append-only journal that records a tournament as it's played, so it can be resumed after a crash or restart.
+ * 
+ * </br></br>
+ * Every event (a game starting, a move, a game finishing) is appended as one line of text, prefixed with a CRC32 checksum:
+ * <pre>
+ * 	1a2b3c4d GAME 2 true
+ * 	5e6f7a8b MOVE B 2 3 1250000
+ * </pre>
+ * Each record is written with a single call to {@link FileChannel#write(ByteBuffer)}. 
+ * If the process dies halfway through a write, the checksum of the torn record won't match, 
+ * and it's cut off the end of the file the next time the journal is opened. 
+ * Only the last record can be torn that way, so a damaged record with valid records after it means the file was damaged some other way; 
+ * the journal then refuses to open rather than cutting off the games recorded after it.
+ * 
+ * </br></br>
+ * Calling {@link FileChannel#force(boolean)} after every move would make checkpointing cost more than some AIs take to move, 
+ * so syncs are batched: the journal is synced after {@link #SYNC_EVERY_RECORDS} records or {@link #SYNC_INTERVAL_NANOS}, 
+ * whichever comes first, and always when a game or the tournament finishes. 
+ * A background thread checks for unsynced records every {@link #SYNC_INTERVAL_NANOS}, so the interval holds 
+ * even while a slow player is thinking and nothing new is being written. 
+ * At worst, a crash loses the last few moves of the game in progress, which are then simply played again.
+ * 
+ * @see TournamentState
+ */
+public class TournamentJournal implements AutoCloseable {
+	
+	/**
+	 * The most records that can be written before the journal is synced to disk.
+	 */
+	public static final int SYNC_EVERY_RECORDS = 16;
+	
+	/**
+	 * The longest time (one second) that written records can go without being synced to disk.
+	 */
+	public static final long SYNC_INTERVAL_NANOS = 1000000000L;
+	
+	private final Path path;
+	private final FileChannel channel;
+	private final TournamentState state;
+	private final ScheduledExecutorService syncer;
+	private int unsyncedRecords;
+	private long lastSyncNanos;
+	private IOException syncFailure;
+	
+	private TournamentJournal(Path path, FileChannel channel, TournamentState state) {
+		this.path = path;
+		this.channel = channel;
+		this.state = state;
+		this.lastSyncNanos = System.nanoTime();
+		this.syncer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "journal-sync");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		syncer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				syncIfDirty();
+			}
+		}, SYNC_INTERVAL_NANOS, SYNC_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * Opens a journal, replaying it if it already exists.
+	 * 
+	 * </br></br>
+	 * If the journal holds a tournament that already finished, it's moved aside (to the same name with a timestamp and ".done" appended, 
+	 * so earlier tournaments are never overwritten) and a new, empty journal is started in its place.
+	 * 
+	 * @param path - the journal file
+	 * @return the open journal. {@link #getState()} holds whatever was replayed.
+	 * @throws IOException if the journal can't be read or created, or if a damaged record is followed by valid ones
+	 */
+	public static TournamentJournal open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		TournamentState state = new TournamentState();
+		long validLength;
+		try {
+			validLength = replay(path, channel, state);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		
+		if (state.isFinished()) {
+			channel.close();
+			String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+			Files.move(path, path.resolveSibling(path.getFileName() + "." + timestamp + ".done"), StandardCopyOption.ATOMIC_MOVE);
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			state = new TournamentState();
+			validLength = 0;
+		}
+		
+		// Drop a torn record left by a crash, so new records don't end up after it
+		if (channel.size() > validLength) {
+			channel.truncate(validLength);
+			channel.force(true);
+		}
+		channel.position(validLength);
+		return new TournamentJournal(path, channel, state);
+	}
+	
+	/**
+	 * 
+	 * @return the journal file
+	 */
+	public Path getPath() {
+		return path;
+	}
+	
+	/**
+	 * 
+	 * @return the tournament's state, including everything written since the journal was opened
+	 */
+	public synchronized TournamentState getState() {
+		return state;
+	}
+	
+	/**
+	 * Records the start of a new tournament.
+	 * 
+	 * @param numRounds - the number of rounds in the tournament
+	 */
+	public synchronized void startTournament(int numRounds) {
+		append("TOURNAMENT " + numRounds, true);
+		state.startTournament(numRounds);
+	}
+	
+	/**
+	 * Records the start of a game. Any moves recorded for an unfinished game before this are discarded.
+	 * 
+	 * @param round - the round number (starting at 1)
+	 * @param swap - whether Player 1 and Player 2 swapped colors for this game
+	 */
+	public synchronized void startGame(int round, boolean swap) {
+		append("GAME " + round + " " + swap, false);
+		state.startGame(round, swap);
+	}
+	
+	/**
+	 * Records a move in the game in progress.
+	 * 
+	 * @param c - the {@link Color} of the piece that was placed
+	 * @param coord - where the piece was placed
+	 * @param nanos - how long the ply took, in nanoseconds
+	 */
+	public synchronized void recordMove(Color c, Coordinate coord, long nanos) {
+		append("MOVE " + c + " " + coord.getRow() + " " + coord.getCol() + " " + nanos, false);
+		state.addMove(new RecordedMove(c, coord, nanos));
+	}
+	
+	/**
+	 * Records the result of the game in progress and syncs the journal.
+	 * 
+	 * @param result - the finished game
+	 */
+	public synchronized void finishGame(GameResult result) {
+		append("RESULT " + encode(result.getBlack()) + " " + encode(result.getWhite()) + " " 
+				+ result.getBlackCount() + " " + result.getWhiteCount(), true);
+		state.finishGame(result);
+	}
+	
+	/**
+	 * Records that the tournament is over and syncs the journal.
+	 */
+	public synchronized void finishTournament() {
+		append("END", true);
+		state.finishTournament();
+	}
+	
+	/**
+	 * Syncs any remaining records and closes the journal.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		syncer.shutdownNow();
+		if (channel.isOpen()) {
+			channel.force(false);
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Writes one record, syncing if the batch is full (or <i>sync</i> is set).
+	 */
+	private void append(String record, boolean sync) {
+		byte[] body = record.getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		ByteBuffer buffer = ByteBuffer.wrap((String.format("%08x ", crc.getValue()) + record + "\n").getBytes(StandardCharsets.UTF_8));
+		
+		try {
+			if (syncFailure != null) {
+				throw syncFailure;
+			}
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			unsyncedRecords++;
+			long now = System.nanoTime();
+			if (sync || unsyncedRecords >= SYNC_EVERY_RECORDS || now - lastSyncNanos >= SYNC_INTERVAL_NANOS) {
+				channel.force(false);
+				unsyncedRecords = 0;
+				lastSyncNanos = now;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Couldn't write to tournament journal " + path, e);
+		}
+	}
+	
+	/**
+	 * Syncs the journal if anything has been written since the last sync. Called by the background sync thread.
+	 */
+	private synchronized void syncIfDirty() {
+		if (unsyncedRecords == 0 || !channel.isOpen() || syncFailure != null) {
+			return;
+		}
+		try {
+			channel.force(false);
+			unsyncedRecords = 0;
+			lastSyncNanos = System.nanoTime();
+		} catch (IOException e) {
+			// Reported by the next append, on the thread that's actually playing the tournament
+			syncFailure = e;
+		}
+	}
+	
+	/**
+	 * Applies every valid record in the journal to <i>state</i>.
+	 * 
+	 * @return the length of the valid part of the journal, in bytes
+	 * @throws IOException if the journal can't be read, or if a damaged record isn't the last one
+	 */
+	private static long replay(Path path, FileChannel channel, TournamentState state) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, buffer.position()) < 0) {
+				break;
+			}
+		}
+		byte[] bytes = buffer.array();
+		
+		int start = 0;
+		int lineNumber = 0;
+		for (int i = 0; i < bytes.length; i++) {
+			if (bytes[i] != '\n') {
+				continue;
+			}
+			lineNumber++;
+			String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+			if (!apply(line, state)) {
+				// A torn write only ever damages the last record (at most a partial line follows it).
+				// Anything else is damage this class can't explain, and truncating would silently throw away finished games.
+				if (hasCompleteRecord(bytes, i + 1)) {
+					throw new IOException("Tournament journal " + path + " is damaged at line " + lineNumber + " (byte " + start 
+							+ "), and has more records after it. Repair the file or move it aside to start a new tournament.");
+				}
+				break;
+			}
+			start = i + 1;
+		}
+		return start;
+	}
+	
+	/**
+	 * Checks whether there's a complete (newline-terminated) record anywhere from <i>from</i> to the end of the journal.
+	 */
+	private static boolean hasCompleteRecord(byte[] bytes, int from) {
+		for (int i = from; i < bytes.length; i++) {
+			if (bytes[i] == '\n') {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Checks one record's checksum and applies it to <i>state</i>.
+	 * 
+	 * @return <b><i>false</i></b> if the record is damaged
+	 */
+	private static boolean apply(String line, TournamentState state) {
+		int space = line.indexOf(' ');
+		if (space != 8) {
+			return false;
+		}
+		String record = line.substring(space + 1);
+		CRC32 crc = new CRC32();
+		crc.update(record.getBytes(StandardCharsets.UTF_8));
+		if (!line.substring(0, space).equals(String.format("%08x", crc.getValue()))) {
+			return false;
+		}
+		
+		String[] parts = record.split(" ");
+		try {
+			switch (parts[0]) {
+			case "TOURNAMENT":
+				state.startTournament(Integer.parseInt(parts[1]));
+				break;
+			case "GAME":
+				state.startGame(Integer.parseInt(parts[1]), Boolean.parseBoolean(parts[2]));
+				break;
+			case "MOVE":
+				state.addMove(new RecordedMove(Color.valueOf(parts[1]), 
+						new Coordinate(Integer.parseInt(parts[2]), Integer.parseInt(parts[3])), Long.parseLong(parts[4])));
+				break;
+			case "RESULT":
+				state.finishGame(new GameResult(decode(parts[1]), decode(parts[2]), 
+						Integer.parseInt(parts[3]), Integer.parseInt(parts[4])));
+				break;
+			case "END":
+				state.finishTournament();
+				break;
+			default:
+				return false;
+			}
+		} catch (RuntimeException e) {
+			// A record with a good checksum but bad contents came from something other than this class
+			return false;
+		}
+		return true;
+	}
+	
+	private static String encode(String name) {
+		return URLEncoder.encode(name, StandardCharsets.UTF_8);
+	}
+	
+	private static String decode(String name) {
+		return URLDecoder.decode(name, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,139 @@
+package checkpoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import components.Color;
+import ratings.GameResult;
+
+/**
+ * 
+ * Everything that's needed to pick a tournament back up where it left off, as rebuilt by {@link TournamentJournal} from its journal file.
+ * 
+ * </br></br>
+ * The state is only modified while the journal is being replayed, and by the journal as new records are written.
+ * 
+ * @see TournamentJournal
+ */
+public class TournamentState {
+	
+	private int numRounds;
+	private boolean finished;
+	private final List<GameResult> results = new ArrayList<GameResult>();
+	
+	private int currentRound;
+	private boolean swap;
+	private final List<RecordedMove> moves = new ArrayList<RecordedMove>();
+	
+	/**
+	 * 
+	 * @return the number of rounds the tournament was started with (0 if no tournament has been started)
+	 */
+	public int getNumRounds() {
+		return numRounds;
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if the tournament was started
+	 */
+	public boolean isStarted() {
+		return numRounds > 0;
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if the tournament ran to completion
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+	
+	/**
+	 * 
+	 * @return the results of every finished game, in the order they were played
+	 */
+	public List<GameResult> getResults() {
+		return Collections.unmodifiableList(results);
+	}
+	
+	/**
+	 * 
+	 * @return the number of games that have finished
+	 */
+	public int getCompletedRounds() {
+		return results.size();
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if a game was started but hasn't finished
+	 */
+	public boolean isGameInProgress() {
+		return currentRound > results.size();
+	}
+	
+	/**
+	 * 
+	 * @return the round number of the most recently started game (0 if no game has been started)
+	 */
+	public int getCurrentRound() {
+		return currentRound;
+	}
+	
+	/**
+	 * 
+	 * @return the swap setting of the most recently started game
+	 */
+	public boolean getSwap() {
+		return swap;
+	}
+	
+	/**
+	 * 
+	 * @return the moves played so far in the game in progress (empty if no game is in progress)
+	 */
+	public List<RecordedMove> getMoves() {
+		return Collections.unmodifiableList(moves);
+	}
+	
+	/**
+	 * Returns the total time one side has spent on its plies in the game in progress.
+	 * 
+	 * @param c - {@link Color#B} or {@link Color#W}
+	 * @return the time used, in nanoseconds
+	 */
+	public long getClock(Color c) {
+		long nanos = 0;
+		for (RecordedMove m : moves) {
+			if (m.getColor() == c) {
+				nanos += m.getNanos();
+			}
+		}
+		return nanos;
+	}
+	
+	void startTournament(int numRounds) {
+		this.numRounds = numRounds;
+	}
+	
+	void startGame(int round, boolean swap) {
+		this.currentRound = round;
+		this.swap = swap;
+		moves.clear();
+	}
+	
+	void addMove(RecordedMove move) {
+		moves.add(move);
+	}
+	
+	void finishGame(GameResult result) {
+		results.add(result);
+		moves.clear();
+	}
+	
+	void finishTournament() {
+		finished = true;
+	}
+}
@@ -205,6 +205,40 @@ public abstract class Board implements Cloneable {
 		return count;
 	}
 	
+	/**
+	 * Takes an immutable {@link BoardSnapshot} of the Board's current configuration, which can be shared freely (even between threads) without copying.
+	 * 
+	 * </br></br>
+	 * This implementation reads every square from {@link #contents} (or from {@link #get(Coordinate)} if contents isn't used), 
+	 * which is quick for an 8x8 board. If your Board keeps its pieces as bit sets, you can override this to build the snapshot directly from them.
+	 * 
+	 * @param toMove - {@link Color#B} or {@link Color#W} - the side whose turn it is
+	 * @return a snapshot of the Board
+	 * @throws UnsupportedOperationException if the Board isn't 8x8
+	 */
+	public BoardSnapshot snapshot(Color toMove) {
+		if (width != BoardSnapshot.WIDTH) {
+			throw new UnsupportedOperationException("Snapshots only support " + BoardSnapshot.WIDTH + "x" + BoardSnapshot.WIDTH + " boards");
+		}
+		if (contents != null) {
+			return BoardSnapshot.of(contents, toMove);
+		}
+		
+		long black = 0;
+		long white = 0;
+		for (int row = 0; row < width; row++) {
+			for (int col = 0; col < width; col++) {
+				Color piece = get(new Coordinate(row, col));
+				if (piece == Color.B) {
+					black |= BoardSnapshot.bit(row, col);
+				} else if (piece == Color.W) {
+					white |= BoardSnapshot.bit(row, col);
+				}
+			}
+		}
+		return new BoardSnapshot(black, white, toMove);
+	}
+	
 	/**
 	 * Returns a string representation of the {@link Board}'s current configuration
 	 */
@@ -0,0 +1,456 @@
+package components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 
+ * An immutable picture of an 8x8 Othello {@link Board} at one moment, plus whose turn it is.
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #black}, {@link #white}, {@link #toMove}
+ * 
+ * </br></br>
+ * The whole position fits in two <i>long</i>s (one bit per square for each {@link Color}), 
+ * so a snapshot is cheap to create and can never change once it exists. 
+ * That means the same snapshot can be handed to a {@link Player}, a logger and a spectator at the same time, on different threads, 
+ * without anyone needing to copy it first.
+ * 
+ * </br></br>
+ * Square <i>(row, col)</i> is bit <i>row * 8 + col</i>, so bit 0 is A1 (the upper-left corner) and bit 63 is H8.
+ * 
+ * </br></br>
+ * Snapshots can also generate and play moves themselves, which makes them handy for searching:
+ * 
+ * <pre>
+ * 	public Coordinate makeMove(BoardSnapshot snapshot) {
+ * 		for (Coordinate move : snapshot.getValidMoves(color)) {
+ * 			BoardSnapshot next = snapshot.play(move);	// a new snapshot, the original is unchanged
+ * 			...
+ * 		}
+ * 	}
+ * </pre>
+ * 
+ * @see Board#snapshot(Color)
+ * @see Player#makeMove(BoardSnapshot)
+ */
+public final class BoardSnapshot {
+	
+	/**
+	 * The only board width snapshots support.
+	 */
+	public static final int WIDTH = 8;
+	
+	/**
+	 * Every square except the ones in column A.
+	 */
+	private static final long NOT_A = 0xfefefefefefefefeL;
+	
+	/**
+	 * Every square except the ones in column H.
+	 */
+	private static final long NOT_H = 0x7f7f7f7f7f7f7f7fL;
+	
+	/**
+	 * The eight directions a line of pieces can run in.
+	 */
+	private static final int DIRECTIONS = 8;
+	
+	/**
+	 * One bit set for each square with a black piece on it.
+	 */
+	private final long black;
+	
+	/**
+	 * One bit set for each square with a white piece on it.
+	 */
+	private final long white;
+	
+	/**
+	 * The {@link Color} whose turn it is.
+	 */
+	private final Color toMove;
+	
+	/**
+	 * Standard constructor for the BoardSnapshot class.
+	 * 
+	 * @param black - a bit set for every black piece
+	 * @param white - a bit set for every white piece (must not overlap with <i>black</i>)
+	 * @param toMove - {@link Color#B} or {@link Color#W} - the side whose turn it is
+	 */
+	public BoardSnapshot(long black, long white, Color toMove) {
+		if ((black & white) != 0) {
+			throw new IllegalArgumentException("A square can't have both a black and a white piece");
+		}
+		if (toMove != Color.B && toMove != Color.W) {
+			throw new IllegalArgumentException("toMove must be B or W");
+		}
+		this.black = black;
+		this.white = white;
+		this.toMove = toMove;
+	}
+	
+	/**
+	 * 
+	 * @return the position at the start of a game of Othello, with black to move
+	 */
+	public static BoardSnapshot initial() {
+		return new BoardSnapshot(bit(3, 4) | bit(4, 3), bit(3, 3) | bit(4, 4), Color.B);
+	}
+	
+	/**
+	 * Takes a snapshot of the contents of a 2D array of {@link Color}s, like {@link Board#getContents()}.
+	 * 
+	 * @param contents - an 8x8 array of pieces
+	 * @param toMove - the side whose turn it is
+	 * @return the snapshot
+	 */
+	public static BoardSnapshot of(Color[][] contents, Color toMove) {
+		if (contents.length != WIDTH) {
+			throw new IllegalArgumentException("Snapshots only support " + WIDTH + "x" + WIDTH + " boards");
+		}
+		long black = 0;
+		long white = 0;
+		for (int row = 0; row < WIDTH; row++) {
+			for (int col = 0; col < WIDTH; col++) {
+				if (contents[row][col] == Color.B) {
+					black |= bit(row, col);
+				} else if (contents[row][col] == Color.W) {
+					white |= bit(row, col);
+				}
+			}
+		}
+		return new BoardSnapshot(black, white, toMove);
+	}
+	
+	/**
+	 * 
+	 * @return {@link #black}
+	 */
+	public long getBlack() {
+		return black;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #white}
+	 */
+	public long getWhite() {
+		return white;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #toMove}
+	 */
+	public Color getToMove() {
+		return toMove;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #WIDTH}, so snapshots can be used in the same places as {@link Board#getWidth()}
+	 */
+	public int getWidth() {
+		return WIDTH;
+	}
+	
+	/**
+	 * Retrieves the piece at a square.
+	 * 
+	 * @param row - the square's row (0 to 7)
+	 * @param col - the square's column (0 to 7)
+	 * @return the piece on that square ({@link Color#EMPTY} if there isn't one)
+	 */
+	public Color get(int row, int col) {
+		long b = bit(row, col);
+		if ((black & b) != 0) {
+			return Color.B;
+		} else if ((white & b) != 0) {
+			return Color.W;
+		} else {
+			return Color.EMPTY;
+		}
+	}
+	
+	/**
+	 * Retrieves the piece at a {@link Coordinate}.
+	 * 
+	 * @param coord - the position of the piece to retrieve
+	 * @return the piece on that square ({@link Color#EMPTY} if there isn't one)
+	 */
+	public Color get(Coordinate coord) {
+		return get(coord.getRow(), coord.getCol());
+	}
+	
+	/**
+	 * Counts the number of pieces of a particular color (or empty squares).
+	 * 
+	 * @param c - the {@link Color} to count
+	 * @return the number of squares holding <i>c</i>
+	 */
+	public int countPieces(Color c) {
+		switch (c) {
+		case B:
+			return Long.bitCount(black);
+		case W:
+			return Long.bitCount(white);
+		default:
+			return Long.bitCount(~(black | white));
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the number of empty squares
+	 */
+	public int getEmpties() {
+		return countPieces(Color.EMPTY);
+	}
+	
+	/**
+	 * Returns the valid moves for a color as a bit set, with one bit set per square that color could play on.
+	 * 
+	 * @param c - {@link Color#B} or {@link Color#W}
+	 * @return the valid moves
+	 */
+	public long validMoveBits(Color c) {
+		long player = c == Color.B ? black : white;
+		long opponent = c == Color.B ? white : black;
+		long empty = ~(black | white);
+		long moves = 0;
+		for (int dir = 0; dir < DIRECTIONS; dir++) {
+			// Follow every line of opponent pieces that starts next to one of the player's pieces
+			long line = shift(player, dir) & opponent;
+			for (int i = 0; i < WIDTH - 3; i++) {
+				line |= shift(line, dir) & opponent;
+			}
+			moves |= shift(line, dir) & empty;
+		}
+		return moves;
+	}
+	
+	/**
+	 * 
+	 * @param c - {@link Color#B} or {@link Color#W}
+	 * @return the number of valid moves for <i>c</i>
+	 */
+	public int countValidMoves(Color c) {
+		return Long.bitCount(validMoveBits(c));
+	}
+	
+	/**
+	 * 
+	 * @param c - {@link Color#B} or {@link Color#W}
+	 * @return the valid moves for <i>c</i>, sorted by row and then column
+	 */
+	public List<Coordinate> getValidMoves(Color c) {
+		return toCoordinates(validMoveBits(c));
+	}
+	
+	/**
+	 * Checks whether a piece of the given color can be placed at <i>coord</i>.
+	 * 
+	 * @param c - {@link Color#B} or {@link Color#W}
+	 * @param coord - the square to check
+	 * @return <b><i>true</i></b> if the move is legal
+	 */
+	public boolean isValidMove(Color c, Coordinate coord) {
+		return inBounds(coord) && (validMoveBits(c) & bit(coord.getRow(), coord.getCol())) != 0;
+	}
+	
+	/**
+	 * Returns the pieces that would be flipped if a piece of the given color were placed at <i>coord</i>.
+	 * 
+	 * @param c - {@link Color#B} or {@link Color#W}
+	 * @param coord - the square to place the piece on (it must be empty)
+	 * @return a bit set of the pieces that would flip (0 if the move isn't legal)
+	 */
+	public long flips(Color c, Coordinate coord) {
+		if (!inBounds(coord) || get(coord) != Color.EMPTY) {
+			return 0;
+		}
+		long player = c == Color.B ? black : white;
+		long opponent = c == Color.B ? white : black;
+		long move = bit(coord.getRow(), coord.getCol());
+		long flips = 0;
+		for (int dir = 0; dir < DIRECTIONS; dir++) {
+			long line = 0;
+			long square = shift(move, dir);
+			while ((square & opponent) != 0) {
+				line |= square;
+				square = shift(square, dir);
+			}
+			if ((square & player) != 0) {
+				flips |= line;
+			}
+		}
+		return flips;
+	}
+	
+	/**
+	 * Plays a move for the side to move, and returns the resulting position (with the other side to move). 
+	 * This snapshot doesn't change.
+	 * 
+	 * @param coord - where to place the piece
+	 * @return the position after the move
+	 * @throws IllegalArgumentException if the move isn't legal
+	 */
+	public BoardSnapshot play(Coordinate coord) {
+		long flips = flips(toMove, coord);
+		if (flips == 0) {
+			throw new IllegalArgumentException("Illegal move for " + toMove + ": (" + coord.getRow() + ", " + coord.getCol() + ")");
+		}
+		long move = bit(coord.getRow(), coord.getCol());
+		if (toMove == Color.B) {
+			return new BoardSnapshot(black | move | flips, white & ~flips, Color.W);
+		} else {
+			return new BoardSnapshot(black & ~flips, white | move | flips, Color.B);
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the same position with the other side to move
+	 */
+	public BoardSnapshot pass() {
+		return new BoardSnapshot(black, white, toMove.flip());
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if neither side has a valid move
+	 */
+	public boolean isGameOver() {
+		return validMoveBits(Color.B) == 0 && validMoveBits(Color.W) == 0;
+	}
+	
+	/**
+	 * 
+	 * @return the {@link Color} that won the game. (Returns {@link Color#EMPTY} if the game isn't over yet or is a draw.)
+	 */
+	public Color winner() {
+		if (!isGameOver()) {
+			return Color.EMPTY;
+		}
+		int blackCount = Long.bitCount(black);
+		int whiteCount = Long.bitCount(white);
+		if (blackCount == whiteCount) {
+			return Color.EMPTY;
+		}
+		return blackCount > whiteCount ? Color.B : Color.W;
+	}
+	
+	/**
+	 * 
+	 * @return a new 8x8 array with the pieces in this snapshot, laid out like {@link Board#getContents()}
+	 */
+	public Color[][] getContents() {
+		Color[][] contents = new Color[WIDTH][WIDTH];
+		for (int row = 0; row < WIDTH; row++) {
+			for (int col = 0; col < WIDTH; col++) {
+				contents[row][col] = get(row, col);
+			}
+		}
+		return contents;
+	}
+	
+	/**
+	 * Creates a new, mutable {@link Board} holding this position. 
+	 * This is what {@link Player#makeMove(BoardSnapshot)} passes to Players that only implement {@link Player#makeMove(Board)}.
+	 * 
+	 * @return a Board that plays by the rules of Othello, starting from this position
+	 */
+	public Board toBoard() {
+		return new SnapshotBoard(this);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		
+		if (!(o instanceof BoardSnapshot)) {
+			return false;
+		} else {
+			BoardSnapshot s = (BoardSnapshot) o;
+			return black == s.black && white == s.white && toMove == s.toMove;
+		}
+	}
+	
+	@Override
+	public int hashCode() {
+		return (Long.hashCode(black) * 31 + Long.hashCode(white)) * 31 + toMove.hashCode();
+	}
+	
+	/**
+	 * Returns the position as a grid (with <b>B</b>, <b>W</b> and <b>-</b> for empty squares), followed by the side to move.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("  A B C D E F G H\n");
+		for (int row = 0; row < WIDTH; row++) {
+			sb.append(row + 1);
+			for (int col = 0; col < WIDTH; col++) {
+				Color c = get(row, col);
+				sb.append(' ').append(c == Color.EMPTY ? "-" : c.toString());
+			}
+			sb.append('\n');
+		}
+		return sb.append(toMove).append(" to move").toString();
+	}
+	
+	/**
+	 * 
+	 * @param row - a row from 0 to 7
+	 * @param col - a column from 0 to 7
+	 * @return a bit set with just that square
+	 */
+	static long bit(int row, int col) {
+		return 1L << (row * WIDTH + col);
+	}
+	
+	/**
+	 * 
+	 * @param bits - a bit set of squares
+	 * @return the squares as {@link Coordinate}s, sorted by row and then column
+	 */
+	static List<Coordinate> toCoordinates(long bits) {
+		List<Coordinate> coords = new ArrayList<Coordinate>(Long.bitCount(bits));
+		while (bits != 0) {
+			int square = Long.numberOfTrailingZeros(bits);
+			coords.add(new Coordinate(square / WIDTH, square % WIDTH));
+			bits &= bits - 1;
+		}
+		return coords;
+	}
+	
+	private static boolean inBounds(Coordinate coord) {
+		return coord != null && coord.getRow() >= 0 && coord.getRow() < WIDTH && coord.getCol() >= 0 && coord.getCol() < WIDTH;
+	}
+	
+	/**
+	 * Moves every square in a bit set one step in a direction, dropping any that fall off the board.
+	 */
+	private static long shift(long bits, int dir) {
+		switch (dir) {
+		case 0:		// east
+			return (bits << 1) & NOT_A;
+		case 1:		// west
+			return (bits >>> 1) & NOT_H;
+		case 2:		// south
+			return bits << 8;
+		case 3:		// north
+			return bits >>> 8;
+		case 4:		// south-east
+			return (bits << 9) & NOT_A;
+		case 5:		// south-west
+			return (bits << 7) & NOT_H;
+		case 6:		// north-east
+			return (bits >>> 7) & NOT_A;
+		default:	// north-west
+			return (bits >>> 9) & NOT_H;
+		}
+	}
+}
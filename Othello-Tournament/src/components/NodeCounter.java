@@ -0,0 +1,22 @@
+package components;
+
+/**
+ * 
+ * Receives the number of positions (nodes) a {@link Player}'s search looks at, so the game can report how fast each AI searches.
+ * 
+ * </br></br>
+ * The game runner connects one to each Player with {@link Player#setNodeCounter(NodeCounter)}, 
+ * and AIs report to it by calling {@link Player#reportNodes(long)}. 
+ * It lives in the shared {@link components} package so AIs running in a sandbox (whose class loader only links them against this package) can report nodes too.
+ * 
+ * @see Player#reportNodes(long)
+ */
+public interface NodeCounter {
+	
+	/**
+	 * Adds to the number of positions a Player's search has looked at. This can be called from any thread.
+	 * 
+	 * @param count - the number of positions (nodes) searched since the last call
+	 */
+	void addNodes(long count);
+}
@@ -22,6 +22,11 @@ public abstract class Player {
 	 */
 	protected Color color;
 	
+	/**
+	 * Where {@link #reportNodes(long)} sends its counts (<i>null</i> until the game connects one).
+	 */
+	private volatile NodeCounter nodeCounter;
+	
 	/**
 	 * Standard constructor for the {@link Player} class
 	 * </br>(You will need to create a child class that inherits from Player and implements its abstract methods.)
@@ -61,6 +66,36 @@ public abstract class Player {
 		return name;
 	}
 	
+	/**
+	 * Connects this Player to a {@link NodeCounter}. The game runner calls this before the first move; AIs don't need to.
+	 * 
+	 * @param counter - where {@link #reportNodes(long)} should send its counts (or <i>null</i> to disconnect it)
+	 */
+	public final void setNodeCounter(NodeCounter counter) {
+		this.nodeCounter = counter;
+	}
+	
+	/**
+	 * Reports how many positions your search has looked at, so the game's statistics can show how fast your AI searches. 
+	 * Call it once per move, or as often as you like (from any thread); it does nothing if the game isn't keeping count.
+	 * 
+	 * <pre>
+	 * 	public Coordinate makeMove(Board board) {
+	 * 		...
+	 * 		reportNodes(nodesSearched);
+	 * 		return bestMove;
+	 * 	}
+	 * </pre>
+	 * 
+	 * @param count - the number of positions (nodes) searched since the last call
+	 */
+	protected final void reportNodes(long count) {
+		NodeCounter counter = nodeCounter;
+		if (counter != null) {
+			counter.addNodes(count);
+		}
+	}
+	
 	/**
 	 * This method will contain all the work the {@link Player} (your AI) does in order to decide which move to make during its ply.
 	 * 
@@ -82,6 +117,52 @@ public abstract class Player {
 	 * @return the {@link Coordinate} at which to place a piece on the board for that ply
 	 * 
 	 * @see Coordinate
+	 * @see #makeMove(BoardSnapshot)
 	 */
 	public abstract Coordinate makeMove(Board board);
+	
+	/**
+	 * Decides which move to make from an immutable {@link BoardSnapshot} of the game, instead of from the game {@link Board}.
+	 * 
+	 * </br></br>
+	 * This is opt-in: the game only calls this method for Players that override it (see {@link #acceptsSnapshots()}). 
+	 * Everyone else keeps getting the game's own Board in {@link #makeMove(Board)}, so casting it to your own Board class still works.
+	 * 
+	 * </br></br>
+	 * Since a snapshot can't be changed, overriding this method lets your Player skip copying the board altogether. 
+	 * {@link BoardSnapshot#play(Coordinate)} returns the position after a move, which is all most searches need.
+	 * 
+	 * </br></br>
+	 * If it's called on a Player that doesn't override it (by tools that only have a snapshot, for example), 
+	 * this turns the snapshot into a new Board with {@link BoardSnapshot#toBoard()} and passes that to {@link #makeMove(Board)}.
+	 * 
+	 * @param snapshot - the state of the game at the beginning of the player's ply
+	 * @return the {@link Coordinate} at which to place a piece on the board for that ply
+	 */
+	public Coordinate makeMove(BoardSnapshot snapshot) {
+		return makeMove(snapshot.toBoard());
+	}
+	
+	/**
+	 * Checks whether this Player wants to be handed {@link BoardSnapshot}s, which is the case if its class overrides {@link #makeMove(BoardSnapshot)}.
+	 * 
+	 * @return <b><i>true</i></b> if the game should call {@link #makeMove(BoardSnapshot)} rather than {@link #makeMove(Board)}
+	 */
+	public boolean acceptsSnapshots() {
+		return OVERRIDES_SNAPSHOT_MOVE.get(getClass());
+	}
+	
+	/**
+	 * Remembers, per Player class, whether {@link #makeMove(BoardSnapshot)} is overridden, so the check only uses reflection once.
+	 */
+	private static final ClassValue<Boolean> OVERRIDES_SNAPSHOT_MOVE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("makeMove", BoardSnapshot.class).getDeclaringClass() != Player.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
 }
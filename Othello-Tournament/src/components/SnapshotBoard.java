@@ -0,0 +1,135 @@
+package components;
+
+import java.util.List;
+
+/**
+ * 
+ * A complete, mutable Othello {@link Board} that starts out as a copy of a {@link BoardSnapshot}. 
+ * This is the Board {@link Player#makeMove(BoardSnapshot)} gives to Players that only know how to work with Boards.
+ * 
+ * </br></br>
+ * The pieces are kept as bit sets, the same way as in a BoardSnapshot, so {@link #snapshot(Color)} doesn't need to scan the board. 
+ * {@link #contents} is kept up to date alongside them for the methods in Board that use it, 
+ * and {@link #getContents()} hands out a copy so the two can't get out of step.
+ */
+class SnapshotBoard extends Board {
+	
+	private long black;
+	private long white;
+	
+	/**
+	 * 
+	 * @param snapshot - the position to start from
+	 */
+	SnapshotBoard(BoardSnapshot snapshot) {
+		super(BoardSnapshot.WIDTH);
+		this.black = snapshot.getBlack();
+		this.white = snapshot.getWhite();
+		this.contents = snapshot.getContents();
+	}
+	
+	/**
+	 * Places a piece if it's a legal Othello move for <i>c</i>, and flips the pieces it captures.
+	 * 
+	 * @return <b><i>false</i></b> (leaving the board unchanged) if the move isn't legal
+	 */
+	@Override
+	public boolean set(Color c, Coordinate coord) {
+		if (c != Color.B && c != Color.W) {
+			return false;
+		}
+		long flips = snapshot(c).flips(c, coord);
+		if (flips == 0) {
+			return false;
+		}
+		long changed = flips | BoardSnapshot.bit(coord.getRow(), coord.getCol());
+		if (c == Color.B) {
+			black |= changed;
+			white &= ~changed;
+		} else {
+			white |= changed;
+			black &= ~changed;
+		}
+		for (Coordinate square : BoardSnapshot.toCoordinates(changed)) {
+			contents[square.getRow()][square.getCol()] = c;
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns a copy of the board's contents. Changing the copy doesn't change the board; use {@link #set(Color, Coordinate)} for that.
+	 */
+	@Override
+	public Color[][] getContents() {
+		return snapshot(Color.B).getContents();
+	}
+	
+	@Override
+	public Color get(Coordinate coord) {
+		return contents[coord.getRow()][coord.getCol()];
+	}
+	
+	@Override
+	public void initialize() {
+		BoardSnapshot initial = BoardSnapshot.initial();
+		black = initial.getBlack();
+		white = initial.getWhite();
+		contents = initial.getContents();
+	}
+	
+	@Override
+	public int countValidMoves(Color c) {
+		return snapshot(c).countValidMoves(c);
+	}
+	
+	@Override
+	public List<Coordinate> getValidMoves(Color c) {
+		return snapshot(c).getValidMoves(c);
+	}
+	
+	/**
+	 * Takes a snapshot straight from the bit sets, without scanning the board.
+	 */
+	@Override
+	public BoardSnapshot snapshot(Color toMove) {
+		return new BoardSnapshot(black, white, toMove == Color.W ? Color.W : Color.B);
+	}
+	
+	@Override
+	public String toString() {
+		return render(0);
+	}
+	
+	/**
+	 * Marks the squares where <i>c</i> can play with <b>*</b>.
+	 */
+	@Override
+	public String toString(Color c) {
+		return render(snapshot(c).validMoveBits(c));
+	}
+	
+	@Override
+	public Board clone() {
+		return new SnapshotBoard(snapshot(Color.B));
+	}
+	
+	/**
+	 * Draws the board as a grid, with <b>*</b> on every square in <i>marked</i>.
+	 */
+	private String render(long marked) {
+		StringBuilder sb = new StringBuilder("  A B C D E F G H\n");
+		for (int row = 0; row < width; row++) {
+			sb.append(row + 1);
+			for (int col = 0; col < width; col++) {
+				Color piece = contents[row][col];
+				if ((marked & BoardSnapshot.bit(row, col)) != 0) {
+					sb.append(" *");
+				} else {
+					sb.append(' ').append(piece == Color.EMPTY ? "-" : piece.toString());
+				}
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
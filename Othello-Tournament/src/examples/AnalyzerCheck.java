@@ -0,0 +1,94 @@
+package game;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import analysis.AlphaBetaSearch;
+import analysis.PositionAnalyzer;
+import components.BoardSnapshot;
+import components.Color;
+import components.Coordinate;
+
+/**
+ * 
+ * Checks that {@link PositionAnalyzer} writes exactly the same output whatever number of threads it runs on, 
+ * so a batch can be re-run on a bigger machine and diffed against an earlier run. 
+ * Run it after changing the analyzer or the search; it exits with status 1 if the outputs differ.
+ * 
+ * </br></br>
+ * The positions come from random games (always the same ones), with a few bad lines mixed in, 
+ * since error records have to come out in order too.
+ */
+public class AnalyzerCheck {
+	
+	private static final int POSITIONS = 400;
+	private static final int DEPTH = 4;
+	private static final int[] THREADS = { 1, 2, 4 };
+	
+	public static void main(String[] args) throws IOException {
+		String input = randomPositions(new Random(7));
+		
+		String expected = null;
+		boolean passed = true;
+		for (int threads : THREADS) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			StringWriter out = new StringWriter();
+			long start = System.nanoTime();
+			try {
+				new PositionAnalyzer(new AlphaBetaSearch(DEPTH, Long.MAX_VALUE), pool, 4 * threads).analyze(new StringReader(input), out);
+			} finally {
+				pool.shutdown();
+			}
+			
+			String output = out.toString();
+			if (expected == null) {
+				expected = output;
+			}
+			boolean ok = output.equals(expected) && output.split("\n").length == POSITIONS;
+			passed &= ok;
+			System.out.printf("%s %d thread(s): %d lines in %.1f ms%n", 
+					ok ? "ok      " : "FAILED  ", threads, output.split("\n").length, (System.nanoTime() - start) / 1e6);
+		}
+		
+		if (!passed) {
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Plays random games from the starting position and writes one position per move, in the analyzer's input format. 
+	 * Every 50th line is garbage instead.
+	 */
+	private static String randomPositions(Random rand) {
+		StringBuilder sb = new StringBuilder();
+		BoardSnapshot position = BoardSnapshot.initial();
+		for (int i = 0; i < POSITIONS; i++) {
+			if (i % 50 == 49) {
+				sb.append("not a position\n");
+				continue;
+			}
+			
+			List<Coordinate> moves = position.getValidMoves(position.getToMove());
+			if (position.isGameOver()) {
+				position = BoardSnapshot.initial();
+			} else if (moves.isEmpty()) {
+				position = position.pass();
+			} else {
+				position = position.play(moves.get(rand.nextInt(moves.size())));
+			}
+			
+			for (int row = 0; row < BoardSnapshot.WIDTH; row++) {
+				for (int col = 0; col < BoardSnapshot.WIDTH; col++) {
+					Color c = position.get(row, col);
+					sb.append(c == Color.B ? 'X' : c == Color.W ? 'O' : '-');
+				}
+			}
+			sb.append(' ').append(position.getToMove() == Color.B ? 'X' : 'O').append('\n');
+		}
+		return sb.toString();
+	}
+}
@@ -1,20 +1,52 @@
 package game;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
+import checkpoint.RecordedMove;
+import checkpoint.TournamentJournal;
+import checkpoint.TournamentState;
 import components.Board;
+import components.BoardSnapshot;
 import components.Color;
 import components.Coordinate;
 import components.OthelloBoard;
 import components.Player;
+import metrics.Metrics;
+import metrics.MoveTimer;
 import players.Human;
 import players.StupidAI;
+import ratings.GameResult;
+import ratings.ResultsStore;
+import sandbox.ForfeitException;
+import sandbox.SandboxedPlayer;
 
 public class Game {
 	
 	public static Scanner sc = new Scanner(System.in);
 	
+	/**
+	 * Results and ratings for every game played so far.
+	 * To stop an A/B match between two AIs early, start an SPRT before the tournament, e.g.
+	 * <pre>
+	 * 	results.startSprt("New AI", "Old AI", 0, 10, 0.05, 0.05);
+	 * </pre>
+	 */
+	public static ResultsStore results = new ResultsStore();
+	
+	/**
+	 * Checkpoints the tournament as it's played (see {@link #playTournament(int)}). 
+	 * This is <i>null</i> if the journal couldn't be opened, or if games are played outside of a tournament.
+	 */
+	public static TournamentJournal journal;
+	
 	public static void main(String[] args) {
+		// Start the Flight Recorder up front, so its start-up time doesn't land in the first ply
+		Metrics.registerFlightRecorderEvents();
 		playTournament(3);
 	}
 	
@@ -24,12 +56,40 @@ public class Game {
 	 * @param numRounds the number of rounds to play in a tournament
 	 */
 	public static void playTournament(int numRounds) {
-		int currentRound = 0;
-		boolean swap = false;
+		try {
+			journal = TournamentJournal.open(Paths.get("tournament.journal"));
+		} catch (IOException e) {
+			System.err.println("Couldn't open the tournament journal, so this tournament can't be resumed: " + e.getMessage());
+		}
+		
+		TournamentState state = journal == null ? new TournamentState() : journal.getState();
+		if (state.isStarted()) {
+			// Pick up where the last run left off
+			numRounds = state.getNumRounds();
+			for (GameResult result : state.getResults()) {
+				results.record(result);
+			}
+			System.out.println("Resuming tournament after " + state.getCompletedRounds() + " of " + numRounds + " games");
+		} else if (journal != null) {
+			journal.startTournament(numRounds);
+		}
+		
+		int currentRound = state.getCompletedRounds();
+		boolean swap = state.getSwap();
 		while (currentRound++ < numRounds) {
 			
 			System.out.println("\n\n====== Game " + currentRound + " of " + numRounds + " ======\n");
+			if (journal != null && !state.isGameInProgress()) {
+				journal.startGame(currentRound, swap);
+			}
 			playGame(swap);
+			System.out.println("\n" + results);
+			writeMetrics();
+			
+			if (results.isMatchDecided()) {
+				System.out.println("The SPRT reached a decision, so the tournament is over.");
+				break;
+			}
 			
 			if (currentRound < numRounds) {
 				System.out.print("\nSwitch who goes first for the next game? (y/n): ");
@@ -38,6 +98,16 @@ public class Game {
 				}
 			}
 		}
+		
+		if (journal != null) {
+			journal.finishTournament();
+			try {
+				journal.close();
+			} catch (IOException e) {
+				System.err.println("Couldn't close the tournament journal: " + e.getMessage());
+			}
+			journal = null;
+		}
 	}
 	
 	/**
@@ -50,6 +120,8 @@ public class Game {
 		/*
 		 * Instantiate Player AIs from desired classes
 		 * Just change to Player types and names as desired
+		 * (AIs written by someone else can be run in a sandbox with sandbox.PlayerHost, e.g.
+		 *  p2 = host.load(Paths.get("submissions/ai.jar"), "players.TheirAI", "Their AI", Color.W);)
 		 */
 		Player p1;
 		Player p2;
@@ -62,18 +134,64 @@ public class Game {
 			p2 = new StupidAI("The Artificial Unintelligent", Color.W);
 		}
 
+		// Nodes reported by AIs (with Player.reportNodes) go to their statistics
+		p1.setNodeCounter(Metrics.player(p1.getName()));
+		p2.setNodeCounter(Metrics.player(p2.getName()));
 		
 		int currentTurn = 1;
 		
-		// Each iteration through the while-loop is one full turn
-		while(!gameBoard.isGameOver()) {
-			System.out.println("\n\n--- Turn " + currentTurn++ + " ---");
-			turn(p1, p2, gameBoard);
+		// If the game was interrupted, replay the moves from the journal before carrying on
+		List<RecordedMove> resumed = journal == null ? Collections.<RecordedMove>emptyList() 
+				: new ArrayList<RecordedMove>(journal.getState().getMoves());
+		for (RecordedMove move : resumed) {
+			if (!gameBoard.set(move.getColor(), move.getCoordinate())) {
+				// Carrying on from a position the journal doesn't describe would mean playing a different game
+				System.out.println("\nThe checkpointed moves couldn't be replayed, so the game is starting over.");
+				gameBoard = new OthelloBoard();
+				journal.startGame(journal.getState().getCurrentRound(), swap);
+				resumed = Collections.emptyList();
+				break;
+			}
+		}
+		
+		Player forfeited = null;
+		try {
+			if (!resumed.isEmpty()) {
+				System.out.printf("\nResuming game after %d moves (clocks: B %.1fs, W %.1fs)%n", resumed.size(), 
+						journal.getState().getClock(Color.B) / 1e9, journal.getState().getClock(Color.W) / 1e9);
+				
+				// If Player 1 moved last, it's Player 2's ply before the next full turn
+				if (resumed.get(resumed.size() - 1).getColor() == p1.getColor() && !gameBoard.isGameOver()) {
+					ply(p2, gameBoard);
+				}
+			}
+			
+			// Each iteration through the while-loop is one full turn
+			while(!gameBoard.isGameOver()) {
+				System.out.println("\n\n--- Turn " + currentTurn++ + " ---");
+				turn(p1, p2, gameBoard);
+			}
+		} catch (ForfeitException e) {
+			// A sandboxed Player went over its resource budget or crashed
+			forfeited = e.getPlayer();
+			System.out.println("\n" + e.getMessage());
+		} finally {
+			closeIfSandboxed(p1);
+			closeIfSandboxed(p2);
 		}
 		
 		System.out.println("\n\n====== Game Over! ======\n\n" + gameBoard.toString());
 		
-		if (gameBoard.winner() == Color.EMPTY) {
+		int blackCount = gameBoard.countPieces(Color.B);
+		int whiteCount = gameBoard.countPieces(Color.W);
+		
+		if (forfeited != null) {
+			// A forfeit counts as a wipe-out: the other Player gets every square on the board
+			Player winner = forfeited == p1 ? p2 : p1;
+			blackCount = winner.getColor() == Color.B ? gameBoard.getSize() : 0;
+			whiteCount = winner.getColor() == Color.W ? gameBoard.getSize() : 0;
+			System.out.println("The Winner is " + winner.getName() + ", playing as " + winner.getColor() + ", by forfeit");
+		} else if (gameBoard.winner() == Color.EMPTY) {
 			System.out.println("It's a draw!");
 		} else {
 			System.out.println("The Winner is " + 
@@ -82,12 +200,34 @@ public class Game {
 					p2.getName() + ", playing as " + p2.getColor()));
 		}
 		
-		System.out.println("\t" + p1.getColor() + " total: " + gameBoard.countPieces(p1.getColor()));
-		System.out.println("\t" + p2.getColor() + " total: " + gameBoard.countPieces(p2.getColor()));
+		System.out.println("\t" + Color.B + " total: " + blackCount);
+		System.out.println("\t" + Color.W + " total: " + whiteCount);
+		
+		Player black = p1.getColor() == Color.B ? p1 : p2;
+		Player white = p1.getColor() == Color.B ? p2 : p1;
+		GameResult result = new GameResult(black.getName(), white.getName(), blackCount, whiteCount);
+		results.record(result);
+		if (journal != null) {
+			journal.finishGame(result);
+		}
 		
+		if (forfeited != null) {
+			return forfeited == p1 ? p2 : p1;
+		}
 		return p1.getColor() == gameBoard.winner() ? p1 : p2;
 	}
 	
+	/**
+	 * Releases the thread and class loader of a Player created by sandbox.PlayerHost. Other Players are left alone.
+	 * 
+	 * @param p the Player to close
+	 */
+	private static void closeIfSandboxed(Player p) {
+		if (p instanceof SandboxedPlayer) {
+			((SandboxedPlayer) p).close();
+		}
+	}
+	
 	/**
 	 * 
 	 * One turn in a game of Othello (one ply for each Player)
@@ -110,22 +250,72 @@ public class Game {
 	 * @param b the game Board
 	 */
 	public static void ply(Player p, Board b) {
+		long plyStart = System.nanoTime();
+		long excludedNanos = 0;
+		
+		// Players that accept snapshots share one immutable snapshot across any retries, so the Board is never copied for them.
+		// Snapshots only cover 8x8 boards, so on any other size every Player gets the Board itself.
+		BoardSnapshot snapshot = b.getWidth() == BoardSnapshot.WIDTH && p.acceptsSnapshots() ? b.snapshot(p.getColor()) : null;
+		int empties = b.countPieces(Color.EMPTY);
 		
 		System.out.println("\n" + b.toString(p.getColor()));
 		System.out.print(p.getName() + "\'s move (" + p.getColor() + ") ");
 		
-		if (b.countValidMoves(p.getColor()) > 0) {
+		long moveGenerationStart = System.nanoTime();
+		int validMoves = b.countValidMoves(p.getColor());
+		Metrics.recordMoveGeneration(empties, System.nanoTime() - moveGenerationStart);
+		
+		if (validMoves > 0) {
 			
 			// Call the current Player's makeMove() method, and attempt to update the game board with the results
+			// The Player's moves and any waiting for ENTER aren't counted towards the ply time
 			Coordinate playerMove;
-			while (!b.set(p.getColor(), (playerMove = p.makeMove(b)))) {
+			long moveStart = System.nanoTime();
+			while (!b.set(p.getColor(), (playerMove = timedMove(p, b, snapshot, empties)))) {
 				System.out.println("\n" + p.getName() + " attempted invalid move: " + convertCoordinate(playerMove) + "\nPress ENTER to continue");
 				sc.nextLine();
 				System.out.print(p.getName() + "\'s move (" + p.getColor() + "): ");
 			}
+			excludedNanos = System.nanoTime() - moveStart;
+			
+			if (journal != null) {
+				journal.recordMove(p.getColor(), playerMove, System.nanoTime() - plyStart);
+			}
 		} else {
 			System.out.println("\n" + p.getName() + " passes (no moves available).");
-			return;
+		}
+		
+		Metrics.recordPly(empties, System.nanoTime() - plyStart - excludedNanos);
+	}
+	
+	/**
+	 * Calls the Player's makeMove() method and records how long it took in {@link Metrics}.
+	 * 
+	 * @param p the Player whose ply it is
+	 * @param b the game Board
+	 * @param snapshot a snapshot of the game Board to give the Player instead, or <i>null</i> to give it the Board
+	 * @param empties the number of empty squares on the Board
+	 * @return the move the Player chose
+	 */
+	private static Coordinate timedMove(Player p, Board b, BoardSnapshot snapshot, int empties) {
+		MoveTimer timer = Metrics.startMove(p.getName(), empties);
+		try {
+			return snapshot != null ? p.makeMove(snapshot) : p.makeMove(b);
+		} finally {
+			// Moves that end in a forfeit are the slowest ones, so they're recorded too
+			timer.stop();
+		}
+	}
+	
+	/**
+	 * Writes the current {@link Metrics} to metrics.json and metrics.csv in the working directory, 
+	 * so a running tournament can be checked on without attaching a profiler.
+	 */
+	public static void writeMetrics() {
+		try {
+			Metrics.writeSnapshot(Paths.get("metrics.json"), Paths.get("metrics.csv"));
+		} catch (IOException e) {
+			System.err.println("Couldn't write metrics: " + e.getMessage());
 		}
 	}
 	
@@ -0,0 +1,45 @@
+package game;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import metrics.LatencyHistogram;
+
+/**
+ * 
+ * Checks that {@link LatencyHistogram} reports every percentile within 1% of the exact value. 
+ * Run it after changing the histogram's bucketing; it exits with status 1 if any reported value is off by 1% or more.
+ */
+public class HistogramCheck {
+	
+	private static final double[] PERCENTILES = { 0, 1, 10, 25, 50, 75, 90, 99, 99.9, 99.99, 100 };
+	
+	public static void main(String[] args) {
+		Random rand = new Random(42);
+		double worst = 0;
+		
+		// Latencies from a few hundred nanoseconds up to minutes, spread evenly over the orders of magnitude in between
+		for (int run = 0; run < 20; run++) {
+			LatencyHistogram histogram = new LatencyHistogram();
+			long[] values = new long[100000];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = (long) Math.pow(10, 2 + rand.nextDouble() * 9);
+				histogram.record(values[i]);
+			}
+			Arrays.sort(values);
+			
+			for (double percentile : PERCENTILES) {
+				int rank = (int) Math.max(1, Math.ceil(percentile / 100.0 * values.length));
+				long exact = values[rank - 1];
+				double error = Math.abs(histogram.getValueAtPercentile(percentile) - exact) / (double) exact;
+				worst = Math.max(worst, error);
+			}
+		}
+		
+		System.out.printf("Worst relative error: %.3f%%%n", worst * 100);
+		if (worst >= 0.01) {
+			System.out.println("FAILED: the histogram should stay under 1%");
+			System.exit(1);
+		}
+	}
+}
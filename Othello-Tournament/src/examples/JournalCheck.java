@@ -0,0 +1,134 @@
+package game;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import checkpoint.TournamentJournal;
+import checkpoint.TournamentState;
+import components.Color;
+import components.Coordinate;
+import ratings.GameResult;
+
+/**
+ * 
+ * Checks that a {@link TournamentJournal} survives the damage a crash can do to it, and refuses to open when it's damaged any other way. 
+ * Run it after changing how the journal is written or replayed; it exits with status 1 if any check fails.
+ */
+public class JournalCheck {
+	
+	private static int failures = 0;
+	
+	public static void main(String[] args) throws IOException {
+		Path dir = Files.createTempDirectory("journal-check");
+		try {
+			tornTail(dir.resolve("torn.journal"));
+			damagedLastRecord(dir.resolve("last.journal"));
+			damagedMiddleRecord(dir.resolve("middle.journal"));
+		} finally {
+			try (Stream<Path> files = Files.walk(dir)) {
+				files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+			}
+		}
+		
+		if (failures > 0) {
+			System.out.println(failures + " check(s) FAILED");
+			System.exit(1);
+		}
+		System.out.println("All journal checks passed");
+	}
+	
+	/**
+	 * A crash halfway through a write leaves part of a record at the end of the file. 
+	 * Everything before it should be replayed, the partial record cut off, and new records appended cleanly.
+	 */
+	private static void tornTail(Path path) throws IOException {
+		writeTournament(path);
+		long length = Files.size(path);
+		Files.write(path, "3f2a1b0c MOVE B 2".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		
+		try (TournamentJournal journal = TournamentJournal.open(path)) {
+			checkReplayed("torn tail", journal.getState());
+			check("torn tail: the partial record is cut off", Files.size(path) == length);
+			journal.recordMove(Color.W, new Coordinate(2, 4), 1000);
+		}
+		try (TournamentJournal journal = TournamentJournal.open(path)) {
+			check("torn tail: records appended after the cut are replayed", journal.getState().getMoves().size() == 2);
+		}
+	}
+	
+	/**
+	 * A damaged record at the very end of the file (say, a torn write that did get its newline to disk) is cut off like a partial one.
+	 */
+	private static void damagedLastRecord(Path path) throws IOException {
+		writeTournament(path);
+		long length = Files.size(path);
+		Files.write(path, "00000000 MOVE B 2 3 1000\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		
+		try (TournamentJournal journal = TournamentJournal.open(path)) {
+			checkReplayed("damaged last record", journal.getState());
+			check("damaged last record: the record is cut off", Files.size(path) == length);
+		}
+	}
+	
+	/**
+	 * A damaged record with valid records after it can't come from a torn write, 
+	 * so the journal should refuse to open and leave the file exactly as it was.
+	 */
+	private static void damagedMiddleRecord(Path path) throws IOException {
+		writeTournament(path);
+		byte[] bytes = Files.readAllBytes(path);
+		int secondLine = indexOf(bytes, (byte) '\n', 0) + 1;
+		bytes[secondLine + 9] ^= 0x20;
+		Files.write(path, bytes);
+		
+		try {
+			TournamentJournal.open(path).close();
+			check("damaged middle record: the journal refuses to open", false);
+		} catch (IOException e) {
+			check("damaged middle record: the journal refuses to open", true);
+		}
+		check("damaged middle record: the file is left alone", Arrays.equals(bytes, Files.readAllBytes(path)));
+	}
+	
+	/**
+	 * Writes a tournament with one finished game, and one move into the second game.
+	 */
+	private static void writeTournament(Path path) throws IOException {
+		try (TournamentJournal journal = TournamentJournal.open(path)) {
+			journal.startTournament(3);
+			journal.startGame(1, false);
+			journal.recordMove(Color.B, new Coordinate(2, 3), 1000);
+			journal.finishGame(new GameResult("Player 1", "The Artificial Unintelligent", 40, 24));
+			journal.startGame(2, true);
+			journal.recordMove(Color.B, new Coordinate(3, 2), 1000);
+		}
+	}
+	
+	private static void checkReplayed(String name, TournamentState state) {
+		check(name + ": the finished game is replayed", state.getCompletedRounds() == 1 && state.getResults().size() == 1);
+		check(name + ": the game in progress is replayed", state.isGameInProgress() && state.getCurrentRound() == 2 && state.getSwap());
+		check(name + ": its moves are replayed", state.getMoves().size() == 1);
+	}
+	
+	private static void check(String name, boolean passed) {
+		System.out.println((passed ? "ok      " : "FAILED  ") + name);
+		if (!passed) {
+			failures++;
+		}
+	}
+	
+	private static int indexOf(byte[] bytes, byte b, int from) {
+		for (int i = from; i < bytes.length; i++) {
+			if (bytes[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,112 @@
+package game;
+
+import components.Board;
+import components.BoardSnapshot;
+import components.Coordinate;
+
+/**
+ * 
+ * Checks {@link BoardSnapshot}'s move generation by counting every line of play from the starting position (a "perft") 
+ * and comparing the counts with the well-known ones for Othello. Run it after changing the bitboard code; 
+ * it exits with status 1 if any count is off.
+ * 
+ * </br></br>
+ * A pass counts as a ply, and a finished game counts as one line. The optional argument is the deepest depth to check 
+ * (from 1 to {@link #EXPECTED}.length - 1, 9 by default; each extra ply takes about 8 times as long).
+ * 
+ * </br></br>
+ * For the first few plies it also checks that {@link BoardSnapshot#toBoard()} and {@link Board#snapshot(components.Color)} 
+ * agree with {@link BoardSnapshot#play(Coordinate)}, since Players get to see the position both ways.
+ */
+public class PerftCheck {
+	
+	/**
+	 * The number of lines of play at each depth, starting from depth 0.
+	 */
+	private static final long[] EXPECTED = { 1, 4, 12, 56, 244, 1396, 8200, 55092, 390216, 3005288, 24571284, 212258800 };
+	
+	/**
+	 * How many plies deep moves are also played on a {@link Board} and compared.
+	 */
+	private static final int BOARD_CHECK_DEPTH = 4;
+	
+	public static void main(String[] args) {
+		int maxDepth;
+		try {
+			maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+		} catch (NumberFormatException e) {
+			maxDepth = -1;
+		}
+		if (maxDepth < 1 || maxDepth >= EXPECTED.length) {
+			System.err.println("Usage: java game.PerftCheck [depth from 1 to " + (EXPECTED.length - 1) + "]");
+			System.exit(2);
+		}
+		
+		boolean passed = true;
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			long start = System.nanoTime();
+			long count = perft(BoardSnapshot.initial(), depth, false);
+			boolean ok = count == EXPECTED[depth];
+			passed &= ok;
+			System.out.printf("%s depth %2d: %,d (expected %,d) in %.1f ms%n", 
+					ok ? "ok      " : "FAILED  ", depth, count, EXPECTED[depth], (System.nanoTime() - start) / 1e6);
+		}
+		
+		int boardMismatches = checkOnBoard(BoardSnapshot.initial(), BOARD_CHECK_DEPTH);
+		if (boardMismatches > 0) {
+			System.out.println("FAILED  " + boardMismatches + " move(s) came out differently on a Board than on a BoardSnapshot");
+			passed = false;
+		}
+		if (!passed) {
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Counts the lines of play <i>depth</i> plies deep from <i>position</i>.
+	 * 
+	 * @param position the position to count from
+	 * @param depth the number of plies left
+	 * @param passed whether the last ply was a pass (so another one ends the game)
+	 * @return the number of lines
+	 */
+	private static long perft(BoardSnapshot position, int depth, boolean passed) {
+		if (depth == 0) {
+			return 1;
+		}
+		if (position.validMoveBits(position.getToMove()) == 0) {
+			return passed ? 1 : perft(position.pass(), depth - 1, true);
+		}
+		
+		long count = 0;
+		for (Coordinate move : position.getValidMoves(position.getToMove())) {
+			count += perft(position.play(move), depth - 1, false);
+		}
+		return count;
+	}
+	
+	/**
+	 * Plays every line <i>depth</i> plies deep from <i>position</i> on a {@link Board} as well, 
+	 * and checks that each move ends up in the same position it does on the snapshot.
+	 * 
+	 * @param position the position to start from
+	 * @param depth the number of plies left
+	 * @return the number of moves that came out differently
+	 */
+	private static int checkOnBoard(BoardSnapshot position, int depth) {
+		if (depth == 0) {
+			return 0;
+		}
+		
+		int mismatches = 0;
+		for (Coordinate move : position.getValidMoves(position.getToMove())) {
+			BoardSnapshot expected = position.play(move);
+			Board board = position.toBoard();
+			if (!board.set(position.getToMove(), move) || !board.snapshot(expected.getToMove()).equals(expected)) {
+				mismatches++;
+			}
+			mismatches += checkOnBoard(expected, depth - 1);
+		}
+		return mismatches;
+	}
+}
@@ -0,0 +1,52 @@
+package metrics;
+
+/**
+ * 
+ * The phases of a game of Othello, based on how many empty squares are left on the board.
+ * Timings are kept separately for each phase, since the endgame usually takes far longer to search than the opening.
+ * 
+ * </br></br>
+ * <b>Constants:</b> {@link #OPENING}, {@link #MIDGAME}, {@link #ENDGAME}
+ */
+public enum GamePhase {
+	
+	/**
+	 * More than {@link #OPENING_EMPTIES} empty squares (roughly the first 15 moves on an 8x8 board)
+	 */
+	OPENING,
+	
+	/**
+	 * Everything between the opening and the endgame
+	 */
+	MIDGAME,
+	
+	/**
+	 * {@link #ENDGAME_EMPTIES} or fewer empty squares
+	 */
+	ENDGAME;
+	
+	/**
+	 * Positions with more empty squares than this are in the {@link #OPENING}.
+	 */
+	public static final int OPENING_EMPTIES = 45;
+	
+	/**
+	 * Positions with this many empty squares or fewer are in the {@link #ENDGAME}.
+	 */
+	public static final int ENDGAME_EMPTIES = 20;
+	
+	/**
+	 * 
+	 * @param empties - the number of empty squares on the board
+	 * @return the phase of the game
+	 */
+	public static GamePhase forEmpties(int empties) {
+		if (empties > OPENING_EMPTIES) {
+			return OPENING;
+		} else if (empties > ENDGAME_EMPTIES) {
+			return MIDGAME;
+		} else {
+			return ENDGAME;
+		}
+	}
+}
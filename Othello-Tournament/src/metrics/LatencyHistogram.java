@@ -0,0 +1,138 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 
+ * A lock-free histogram of latencies in nanoseconds, laid out the same way as HdrHistogram:
+ * values are grouped into power-of-two ranges, and each range above the first is split into {@link #SUB_BUCKETS} / 2 linear buckets.
+ * That keeps the relative error of every reported value under 1% (at most 1/128) while using a fixed amount of memory (about 60 KB), 
+ * no matter how large the values get.
+ * 
+ * </br></br>
+ * {@link #record(long)} only does a few atomic increments, so it's safe to call from any number of threads at once.
+ * Reads don't block writers either, so a snapshot taken while games are running may be very slightly behind.
+ */
+public class LatencyHistogram {
+	
+	/**
+	 * log2 of {@link #SUB_BUCKETS}
+	 */
+	private static final int SUB_BUCKET_BITS = 8;
+	
+	/**
+	 * The number of linear buckets in the first power-of-two range.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+	
+	/**
+	 * Enough buckets for any non-negative long.
+	 */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+	
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+	
+	/**
+	 * Adds one value to the histogram. Negative values are counted as 0.
+	 * 
+	 * @param nanos - the latency to record, in nanoseconds
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(indexFor(value));
+		totalCount.incrementAndGet();
+		totalNanos.addAndGet(value);
+		
+		long max;
+		while (value > (max = maxNanos.get())) {
+			if (maxNanos.compareAndSet(max, value)) {
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the number of values recorded
+	 */
+	public long getCount() {
+		return totalCount.get();
+	}
+	
+	/**
+	 * 
+	 * @return the sum of all values recorded, in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+	
+	/**
+	 * 
+	 * @return the largest value recorded, in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+	
+	/**
+	 * 
+	 * @return the mean of all values recorded, in nanoseconds (0 if nothing was recorded)
+	 */
+	public double getMeanNanos() {
+		long count = totalCount.get();
+		return count == 0 ? 0.0 : (double) totalNanos.get() / count;
+	}
+	
+	/**
+	 * Returns (an approximation of) the value below which the given percentage of recorded values fall.
+	 * 
+	 * @param percentile - a number from 0 to 100
+	 * @return the value at that percentile, in nanoseconds (0 if nothing was recorded)
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestValueFor(i), maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+	
+	/**
+	 * Finds the bucket a value belongs in.
+	 */
+	static int indexFor(long value) {
+		int msb = 63 - Long.numberOfLeadingZeros(value | 1);
+		if (msb < SUB_BUCKET_BITS) {
+			return (int) value;
+		}
+		int shift = msb - SUB_BUCKET_BITS + 1;
+		return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+	}
+	
+	/**
+	 * The largest value that falls into a bucket.
+	 */
+	static long highestValueFor(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / HALF_SUB_BUCKETS - 1;
+		long sub = index - shift * HALF_SUB_BUCKETS;
+		return ((sub + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,300 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * 
+ * The central place for runtime statistics about a tournament: how long each {@link components.Player} takes per move, 
+ * how fast its search runs, and how long the {@link components.Board} takes to generate moves in each {@link GamePhase}.
+ * 
+ * </br></br>
+ * Everything in here is lock-free, so recording a measurement is cheap enough to do on every ply.
+ * The statistics can be looked at without attaching a profiler in three ways:
+ * <ul>
+ * <li>{@link #writeJson(Writer)} and {@link #writeCsv(Writer)} write a snapshot of everything recorded so far</li>
+ * <li>{@link #writeSnapshot(Path, Path)} does the same to files, replacing them atomically so they can be read at any time</li>
+ * <li>A Java Flight Recorder recording (e.g. <code>-XX:StartFlightRecording</code>) picks up a {@link MoveEvent} for every move, 
+ * plus a periodic {@link PlayerMetricsEvent} per player once {@link #registerFlightRecorderEvents()} has been called</li>
+ * </ul>
+ * 
+ * @see PlayerMetrics
+ * @see LatencyHistogram
+ */
+public final class Metrics {
+	
+	private static final Map<String, PlayerMetrics> players = new ConcurrentHashMap<String, PlayerMetrics>();
+	private static final Map<GamePhase, LatencyHistogram> moveGeneration = newPhaseHistograms();
+	private static final Map<GamePhase, LatencyHistogram> ply = newPhaseHistograms();
+	private static final AtomicBoolean flightRecorderEventsRegistered = new AtomicBoolean();
+	
+	private Metrics() {
+	}
+	
+	/**
+	 * Registers the periodic {@link PlayerMetricsEvent} with the Java Flight Recorder, so recordings include every player's statistics. 
+	 * 
+	 * </br></br>
+	 * Registering starts up the Flight Recorder, which can take a few hundred milliseconds even when no recording is running. 
+	 * Call this once at startup, before anything is timed, so that time doesn't end up in the first measurements. 
+	 * It does nothing if the Flight Recorder isn't available in this JVM, or if the event is already registered.
+	 */
+	public static void registerFlightRecorderEvents() {
+		if (FlightRecorder.isAvailable() && flightRecorderEventsRegistered.compareAndSet(false, true)) {
+			FlightRecorder.addPeriodicEvent(PlayerMetricsEvent.class, new Runnable() {
+				@Override
+				public void run() {
+					emitPlayerMetricsEvents();
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Returns the statistics for a player, creating them the first time a name is seen.
+	 * 
+	 * @param name - the player's name
+	 * @return the player's {@link PlayerMetrics}
+	 */
+	public static PlayerMetrics player(String name) {
+		PlayerMetrics m = players.get(name);
+		if (m == null) {
+			m = players.computeIfAbsent(name, PlayerMetrics::new);
+		}
+		return m;
+	}
+	
+	/**
+	 * Starts timing a player's move. Call {@link MoveTimer#stop()} on the result as soon as the move has been made.
+	 * 
+	 * @param name - the player's name
+	 * @param empties - the number of empty squares on the board when the move is requested
+	 * @return a running {@link MoveTimer}
+	 */
+	public static MoveTimer startMove(String name, int empties) {
+		return new MoveTimer(player(name), empties);
+	}
+	
+	/**
+	 * Records how long the {@link components.Board} took to generate (or count) the valid moves for a position.
+	 * 
+	 * @param empties - the number of empty squares on the board
+	 * @param nanos - the time taken, in nanoseconds
+	 */
+	public static void recordMoveGeneration(int empties, long nanos) {
+		moveGeneration.get(GamePhase.forEmpties(empties)).record(nanos);
+	}
+	
+	/**
+	 * Records how long the game runner's own work took in a ply (taking the snapshot, move generation, printing the board and checkpointing). 
+	 * The Player's move and any time spent waiting on the console are left out, since those are measured per player 
+	 * (or are just people typing), and would otherwise drown out the runner's overhead.
+	 * 
+	 * @param empties - the number of empty squares on the board at the start of the ply
+	 * @param nanos - the time taken, in nanoseconds
+	 */
+	public static void recordPly(int empties, long nanos) {
+		ply.get(GamePhase.forEmpties(empties)).record(nanos);
+	}
+	
+	/**
+	 * 
+	 * @return the statistics for every player seen so far
+	 */
+	public static List<PlayerMetrics> getPlayers() {
+		return new ArrayList<PlayerMetrics>(players.values());
+	}
+	
+	/**
+	 * 
+	 * @param phase - a phase of the game
+	 * @return the histogram of move generation times for that phase
+	 */
+	public static LatencyHistogram getMoveGeneration(GamePhase phase) {
+		return moveGeneration.get(phase);
+	}
+	
+	/**
+	 * 
+	 * @param phase - a phase of the game
+	 * @return the histogram of ply times for that phase
+	 */
+	public static LatencyHistogram getPly(GamePhase phase) {
+		return ply.get(phase);
+	}
+	
+	/**
+	 * Writes a JSON snapshot of every statistic recorded so far. All times are in nanoseconds.
+	 * 
+	 * @param out - where to write the JSON
+	 * @throws IOException if <i>out</i> can't be written to
+	 */
+	public static void writeJson(Writer out) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n  \"players\": [");
+		String separator = "\n";
+		for (PlayerMetrics m : getPlayers()) {
+			sb.append(separator).append("    {\"name\": ").append(jsonString(m.getName()))
+				.append(", \"moves\": ").append(m.getMoves())
+				.append(", \"nodes\": ").append(m.getNodes())
+				.append(", \"nodesPerSecond\": ").append(String.format(Locale.ROOT, "%.1f", m.getNodesPerSecond()))
+				.append(", \"moveLatency\": ");
+			appendJsonPhases(sb, phaseMap(m));
+			sb.append("}");
+			separator = ",\n";
+		}
+		sb.append("\n  ],\n  \"moveGeneration\": ");
+		appendJsonPhases(sb, moveGeneration);
+		sb.append(",\n  \"ply\": ");
+		appendJsonPhases(sb, ply);
+		sb.append("\n}\n");
+		out.write(sb.toString());
+		out.flush();
+	}
+	
+	/**
+	 * Writes a CSV snapshot of every statistic recorded so far, with one row per player (or runner section) and phase. 
+	 * All times are in nanoseconds.
+	 * 
+	 * @param out - where to write the CSV
+	 * @throws IOException if <i>out</i> can't be written to
+	 */
+	public static void writeCsv(Writer out) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("scope,name,phase,count,mean,p50,p90,p99,max,nodes,nodesPerSecond\n");
+		for (PlayerMetrics m : getPlayers()) {
+			for (GamePhase phase : GamePhase.values()) {
+				appendCsvRow(sb, "player", m.getName(), phase, m.getMoveLatency(phase));
+				sb.append(',').append(m.getNodes()).append(',').append(String.format(Locale.ROOT, "%.1f", m.getNodesPerSecond())).append('\n');
+			}
+		}
+		for (GamePhase phase : GamePhase.values()) {
+			appendCsvRow(sb, "runner", "moveGeneration", phase, moveGeneration.get(phase));
+			sb.append(",,\n");
+			appendCsvRow(sb, "runner", "ply", phase, ply.get(phase));
+			sb.append(",,\n");
+		}
+		out.write(sb.toString());
+		out.flush();
+	}
+	
+	/**
+	 * Writes a JSON and a CSV snapshot to files. Each file is written to a temporary file first and then moved into place, 
+	 * so anyone reading them while a tournament is running never sees a half-written snapshot.
+	 * 
+	 * @param json - the JSON file to write (or <i>null</i> to skip it)
+	 * @param csv - the CSV file to write (or <i>null</i> to skip it)
+	 * @throws IOException if either file can't be written
+	 */
+	public static void writeSnapshot(Path json, Path csv) throws IOException {
+		if (json != null) {
+			Path tmp = json.resolveSibling(json.getFileName() + ".tmp");
+			try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				writeJson(out);
+			}
+			Files.move(tmp, json, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		if (csv != null) {
+			Path tmp = csv.resolveSibling(csv.getFileName() + ".tmp");
+			try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				writeCsv(out);
+			}
+			Files.move(tmp, csv, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+	}
+	
+	private static void emitPlayerMetricsEvents() {
+		for (PlayerMetrics m : getPlayers()) {
+			for (GamePhase phase : GamePhase.values()) {
+				LatencyHistogram h = m.getMoveLatency(phase);
+				PlayerMetricsEvent event = new PlayerMetricsEvent();
+				event.player = m.getName();
+				event.phase = phase.name();
+				event.moves = h.getCount();
+				event.meanNanos = (long) h.getMeanNanos();
+				event.p99Nanos = h.getValueAtPercentile(99);
+				event.maxNanos = h.getMaxNanos();
+				event.nodesPerSecond = m.getNodesPerSecond();
+				event.commit();
+			}
+		}
+	}
+	
+	private static Map<GamePhase, LatencyHistogram> newPhaseHistograms() {
+		Map<GamePhase, LatencyHistogram> map = new EnumMap<GamePhase, LatencyHistogram>(GamePhase.class);
+		for (GamePhase phase : GamePhase.values()) {
+			map.put(phase, new LatencyHistogram());
+		}
+		return map;
+	}
+	
+	private static Map<GamePhase, LatencyHistogram> phaseMap(PlayerMetrics m) {
+		Map<GamePhase, LatencyHistogram> map = new EnumMap<GamePhase, LatencyHistogram>(GamePhase.class);
+		for (GamePhase phase : GamePhase.values()) {
+			map.put(phase, m.getMoveLatency(phase));
+		}
+		return map;
+	}
+	
+	private static void appendJsonPhases(StringBuilder sb, Map<GamePhase, LatencyHistogram> phases) {
+		sb.append("{");
+		String separator = "";
+		for (Map.Entry<GamePhase, LatencyHistogram> entry : phases.entrySet()) {
+			LatencyHistogram h = entry.getValue();
+			sb.append(separator).append('"').append(entry.getKey()).append("\": {")
+				.append("\"count\": ").append(h.getCount())
+				.append(", \"mean\": ").append((long) h.getMeanNanos())
+				.append(", \"p50\": ").append(h.getValueAtPercentile(50))
+				.append(", \"p90\": ").append(h.getValueAtPercentile(90))
+				.append(", \"p99\": ").append(h.getValueAtPercentile(99))
+				.append(", \"max\": ").append(h.getMaxNanos())
+				.append("}");
+			separator = ", ";
+		}
+		sb.append("}");
+	}
+	
+	private static void appendCsvRow(StringBuilder sb, String scope, String name, GamePhase phase, LatencyHistogram h) {
+		sb.append(scope).append(',').append(csvString(name)).append(',').append(phase)
+			.append(',').append(h.getCount())
+			.append(',').append((long) h.getMeanNanos())
+			.append(',').append(h.getValueAtPercentile(50))
+			.append(',').append(h.getValueAtPercentile(90))
+			.append(',').append(h.getValueAtPercentile(99))
+			.append(',').append(h.getMaxNanos());
+	}
+	
+	private static String jsonString(String s) {
+		StringBuilder sb = new StringBuilder("\"");
+		for (char c : s.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+	
+	private static String csvString(String s) {
+		if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
+			return "\"" + s.replace("\"", "\"\"") + "\"";
+		}
+		return s;
+	}
+}
@@ -0,0 +1,31 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 
+ * A Java Flight Recorder event covering one call to {@link components.Player#makeMove(components.BoardSnapshot)}.
+ * The event's duration is the move latency, so slow moves show up directly in JDK Mission Control.
+ * 
+ * </br></br>
+ * Like every JFR event, committing one costs next to nothing while no recording is running. 
+ * (Starting up the Flight Recorder itself doesn't, which is why {@link Metrics#registerFlightRecorderEvents()} is called once at startup.)
+ */
+@Name("othello.Move")
+@Label("Move")
+@Category("Othello")
+@Description("A single Player.makeMove call")
+class MoveEvent extends jdk.jfr.Event {
+	
+	@Label("Player")
+	String player;
+	
+	@Label("Phase")
+	String phase;
+	
+	@Label("Empty Squares")
+	int empties;
+}
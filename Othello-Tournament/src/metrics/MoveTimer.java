@@ -0,0 +1,39 @@
+package metrics;
+
+/**
+ * 
+ * Times a single call to {@link components.Player#makeMove(components.BoardSnapshot)}. 
+ * Get one from {@link Metrics#startMove(String, int)} right before the call, and call {@link #stop()} right after it.
+ * 
+ * @see Metrics
+ */
+public class MoveTimer {
+	
+	private final PlayerMetrics player;
+	private final GamePhase phase;
+	private final MoveEvent event;
+	private final long startNanos;
+	
+	MoveTimer(PlayerMetrics player, int empties) {
+		this.player = player;
+		this.phase = GamePhase.forEmpties(empties);
+		this.event = new MoveEvent();
+		event.player = player.getName();
+		event.phase = phase.name();
+		event.empties = empties;
+		event.begin();
+		this.startNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Records the time since this timer was started as one move.
+	 * 
+	 * @return the time taken, in nanoseconds
+	 */
+	public long stop() {
+		long nanos = System.nanoTime() - startNanos;
+		event.commit();
+		player.recordMove(phase, nanos);
+		return nanos;
+	}
+}
@@ -0,0 +1,107 @@
+package metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import components.NodeCounter;
+
+/**
+ * 
+ * Timing and search statistics for one {@link components.Player}, kept across every game it plays.
+ * 
+ * </br></br>
+ * The move latency (how long {@link components.Player#makeMove(components.BoardSnapshot)} takes) is recorded by the game runner.
+ * Search engines can report how many positions they looked at with {@link #addNodes(long)}, 
+ * which is what {@link #getNodesPerSecond()} is based on. 
+ * Players don't call this directly: the game runner connects each Player's {@link components.Player#reportNodes(long)} to its statistics, 
+ * which also works for AIs running in a sandbox:
+ * 
+ * <pre>
+ * 	player.setNodeCounter(Metrics.player(player.getName()));
+ * </pre>
+ * 
+ * @see Metrics
+ */
+public class PlayerMetrics implements NodeCounter {
+	
+	private final String name;
+	private final Map<GamePhase, LatencyHistogram> moveLatency = new EnumMap<GamePhase, LatencyHistogram>(GamePhase.class);
+	private final LongAdder nodes = new LongAdder();
+	
+	PlayerMetrics(String name) {
+		this.name = name;
+		for (GamePhase phase : GamePhase.values()) {
+			moveLatency.put(phase, new LatencyHistogram());
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the player's name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Records how long the player took to choose a move.
+	 * 
+	 * @param phase - the phase of the game the move was made in
+	 * @param nanos - the time taken, in nanoseconds
+	 */
+	public void recordMove(GamePhase phase, long nanos) {
+		moveLatency.get(phase).record(nanos);
+	}
+	
+	/**
+	 * Adds to the number of positions the player's search has looked at.
+	 * 
+	 * @param count - the number of positions (nodes) searched since the last call
+	 */
+	@Override
+	public void addNodes(long count) {
+		nodes.add(count);
+	}
+	
+	/**
+	 * 
+	 * @param phase - a phase of the game
+	 * @return the histogram of move latencies for that phase
+	 */
+	public LatencyHistogram getMoveLatency(GamePhase phase) {
+		return moveLatency.get(phase);
+	}
+	
+	/**
+	 * 
+	 * @return the total number of moves recorded, over all phases
+	 */
+	public long getMoves() {
+		long moves = 0;
+		for (LatencyHistogram h : moveLatency.values()) {
+			moves += h.getCount();
+		}
+		return moves;
+	}
+	
+	/**
+	 * 
+	 * @return the total number of nodes reported with {@link #addNodes(long)}
+	 */
+	public long getNodes() {
+		return nodes.sum();
+	}
+	
+	/**
+	 * 
+	 * @return the number of nodes searched per second of move time (0 if no moves were recorded)
+	 */
+	public double getNodesPerSecond() {
+		long nanos = 0;
+		for (LatencyHistogram h : moveLatency.values()) {
+			nanos += h.getTotalNanos();
+		}
+		return nanos == 0 ? 0.0 : nodes.sum() * 1e9 / nanos;
+	}
+}
@@ -0,0 +1,46 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * 
+ * A periodic Java Flight Recorder event with a snapshot of one player's {@link PlayerMetrics} for one {@link GamePhase}.
+ * Once {@link Metrics#registerFlightRecorderEvents()} has been called, {@link Metrics} emits one of these for each player and phase 
+ * every time the period elapses (every 10 seconds by default).
+ */
+@Name("othello.PlayerMetrics")
+@Label("Player Metrics")
+@Category("Othello")
+@Description("Snapshot of a player's move latency and search speed")
+@Period("10 s")
+class PlayerMetricsEvent extends jdk.jfr.Event {
+	
+	@Label("Player")
+	String player;
+	
+	@Label("Phase")
+	String phase;
+	
+	@Label("Moves")
+	long moves;
+	
+	@Label("Mean Latency")
+	@Timespan(Timespan.NANOSECONDS)
+	long meanNanos;
+	
+	@Label("99th Percentile Latency")
+	@Timespan(Timespan.NANOSECONDS)
+	long p99Nanos;
+	
+	@Label("Max Latency")
+	@Timespan(Timespan.NANOSECONDS)
+	long maxNanos;
+	
+	@Label("Nodes Per Second")
+	double nodesPerSecond;
+}
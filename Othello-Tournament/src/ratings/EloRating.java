@@ -0,0 +1,89 @@
+package ratings;
+
+/**
+ * 
+ * A player's rating under the Elo system. Ratings are updated after every game with {@link #update(EloRating, EloRating, double)}.
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #rating}, {@link #games}
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/Elo_rating_system">Elo rating system</a>
+ */
+public class EloRating {
+	
+	/**
+	 * The rating every new player starts with.
+	 */
+	public static final double INITIAL_RATING = 1500.0;
+	
+	/**
+	 * How far a single game can move a rating. 32 is a common choice for small pools of players.
+	 */
+	public static final double K_FACTOR = 32.0;
+	
+	/**
+	 * The current rating.
+	 */
+	private double rating;
+	
+	/**
+	 * The number of games that have been included in {@link #rating}.
+	 */
+	private int games;
+	
+	/**
+	 * Creates a rating for a new player ({@link #INITIAL_RATING}).
+	 */
+	public EloRating() {
+		this.rating = INITIAL_RATING;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #rating}
+	 */
+	public double getRating() {
+		return rating;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #games}
+	 */
+	public int getGames() {
+		return games;
+	}
+	
+	/**
+	 * Returns the score a player rated <i>rating</i> is expected to get against a player rated <i>opponentRating</i>.
+	 * 
+	 * @param rating - the player's rating
+	 * @param opponentRating - the opponent's rating
+	 * @return the expected score, between 0 and 1
+	 */
+	public static double expectedScore(double rating, double opponentRating) {
+		return 1.0 / (1.0 + Math.pow(10.0, (opponentRating - rating) / 400.0));
+	}
+	
+	/**
+	 * Updates both players' ratings after a game between them. 
+	 * Both updates use the ratings from before the game, so the order of <i>a</i> and <i>b</i> doesn't matter.
+	 * 
+	 * @param a - the first player's rating
+	 * @param b - the second player's rating
+	 * @param scoreA - the first player's score (1 for a win, 0.5 for a draw, 0 for a loss)
+	 */
+	public static void update(EloRating a, EloRating b, double scoreA) {
+		double expectedA = expectedScore(a.rating, b.rating);
+		double change = K_FACTOR * (scoreA - expectedA);
+		a.rating += change;
+		b.rating -= change;
+		a.games++;
+		b.games++;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%.0f", rating);
+	}
+}
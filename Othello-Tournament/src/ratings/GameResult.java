@@ -0,0 +1,114 @@
+package ratings;
+
+import components.Color;
+
+/**
+ * 
+ * The outcome of one finished game of Othello, recorded by player name so that results can be kept across games 
+ * (the {@link components.Player} objects themselves are re-created for every game in the examples).
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #black}, {@link #white}, {@link #blackCount}, {@link #whiteCount}
+ * 
+ * @see ResultsStore
+ */
+public class GameResult {
+	
+	/**
+	 * The name of the player who played {@link Color#B}.
+	 */
+	private final String black;
+	
+	/**
+	 * The name of the player who played {@link Color#W}.
+	 */
+	private final String white;
+	
+	/**
+	 * The number of black pieces on the board at the end of the game.
+	 */
+	private final int blackCount;
+	
+	/**
+	 * The number of white pieces on the board at the end of the game.
+	 */
+	private final int whiteCount;
+	
+	/**
+	 * Standard constructor for the GameResult class.
+	 * 
+	 * @param black - the name of the player who played black
+	 * @param white - the name of the player who played white
+	 * @param blackCount - the final number of black pieces
+	 * @param whiteCount - the final number of white pieces
+	 */
+	public GameResult(String black, String white, int blackCount, int whiteCount) {
+		this.black = black;
+		this.white = white;
+		this.blackCount = blackCount;
+		this.whiteCount = whiteCount;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #black}
+	 */
+	public String getBlack() {
+		return black;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #white}
+	 */
+	public String getWhite() {
+		return white;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #blackCount}
+	 */
+	public int getBlackCount() {
+		return blackCount;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #whiteCount}
+	 */
+	public int getWhiteCount() {
+		return whiteCount;
+	}
+	
+	/**
+	 * 
+	 * @return the {@link Color} that won the game, or {@link Color#EMPTY} for a draw
+	 */
+	public Color winner() {
+		if (blackCount == whiteCount) {
+			return Color.EMPTY;
+		}
+		return blackCount > whiteCount ? Color.B : Color.W;
+	}
+	
+	/**
+	 * Returns the game score from one player's point of view: 1 for a win, 0.5 for a draw, and 0 for a loss.
+	 * 
+	 * @param name - the name of a player who took part in the game
+	 * @return the player's score for this game
+	 */
+	public double scoreFor(String name) {
+		Color c = winner();
+		if (c == Color.EMPTY) {
+			return 0.5;
+		}
+		String winnerName = c == Color.B ? black : white;
+		return winnerName.equals(name) ? 1.0 : 0.0;
+	}
+	
+	@Override
+	public String toString() {
+		return black + " (B) " + blackCount + " - " + whiteCount + " " + white + " (W)";
+	}
+}
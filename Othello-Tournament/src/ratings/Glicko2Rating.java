@@ -0,0 +1,181 @@
+package ratings;
+
+/**
+ * 
+ * A player's rating under the Glicko-2 system. Unlike {@link EloRating}, Glicko-2 also tracks how certain it is about a rating 
+ * (the rating deviation) and how consistently the player performs (the volatility).
+ * 
+ * </br></br>
+ * Ratings are updated incrementally: each game is treated as its own rating period, 
+ * so the standings are always current while a tournament is still running.
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #rating}, {@link #deviation}, {@link #volatility}
+ * 
+ * @see <a href="http://www.glicko.net/glicko/glicko2.pdf">Example of the Glicko-2 system</a>
+ */
+public class Glicko2Rating {
+	
+	/**
+	 * Converts between the Glicko scale (which looks like Elo) and the internal Glicko-2 scale.
+	 */
+	private static final double SCALE = 173.7178;
+	
+	/**
+	 * Constrains how quickly the volatility can change. Glickman suggests something between 0.3 and 1.2.
+	 */
+	public static final double TAU = 0.5;
+	
+	/**
+	 * Convergence tolerance for the volatility iteration.
+	 */
+	private static final double EPSILON = 0.000001;
+	
+	/**
+	 * The current rating, on the same scale as {@link EloRating} (new players start at 1500).
+	 */
+	private double rating;
+	
+	/**
+	 * The rating deviation. New players start at 350, and it shrinks as more games are played.
+	 */
+	private double deviation;
+	
+	/**
+	 * The rating volatility.
+	 */
+	private double volatility;
+	
+	/**
+	 * Creates a rating for a new player.
+	 */
+	public Glicko2Rating() {
+		this(1500.0, 350.0, 0.06);
+	}
+	
+	/**
+	 * 
+	 * @param rating - the starting {@link #rating}
+	 * @param deviation - the starting {@link #deviation}
+	 * @param volatility - the starting {@link #volatility}
+	 */
+	public Glicko2Rating(double rating, double deviation, double volatility) {
+		this.rating = rating;
+		this.deviation = deviation;
+		this.volatility = volatility;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #rating}
+	 */
+	public double getRating() {
+		return rating;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #deviation}
+	 */
+	public double getDeviation() {
+		return deviation;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #volatility}
+	 */
+	public double getVolatility() {
+		return volatility;
+	}
+	
+	/**
+	 * Updates both players' ratings after a game between them. 
+	 * Both updates use the ratings from before the game, so the order of <i>a</i> and <i>b</i> doesn't matter.
+	 * 
+	 * @param a - the first player's rating
+	 * @param b - the second player's rating
+	 * @param scoreA - the first player's score (1 for a win, 0.5 for a draw, 0 for a loss)
+	 */
+	public static void update(Glicko2Rating a, Glicko2Rating b, double scoreA) {
+		Glicko2Rating before = new Glicko2Rating(a.rating, a.deviation, a.volatility);
+		a.update(b, scoreA);
+		b.update(before, 1.0 - scoreA);
+	}
+	
+	/**
+	 * Runs steps 2 through 8 of the Glicko-2 algorithm for a rating period containing a single game.
+	 * 
+	 * @param opponent - the opponent's rating before the game
+	 * @param score - this player's score
+	 */
+	private void update(Glicko2Rating opponent, double score) {
+		// Step 2: convert to the Glicko-2 scale
+		double mu = (rating - 1500.0) / SCALE;
+		double phi = deviation / SCALE;
+		double muJ = (opponent.rating - 1500.0) / SCALE;
+		double phiJ = opponent.deviation / SCALE;
+		
+		// Steps 3 and 4: estimated variance and improvement
+		double g = g(phiJ);
+		double e = 1.0 / (1.0 + Math.exp(-g * (mu - muJ)));
+		double v = 1.0 / (g * g * e * (1.0 - e));
+		double delta = v * g * (score - e);
+		
+		// Step 5: new volatility (Illinois algorithm)
+		double a = Math.log(volatility * volatility);
+		double phi2 = phi * phi;
+		double lowA = a;
+		double highB;
+		if (delta * delta > phi2 + v) {
+			highB = Math.log(delta * delta - phi2 - v);
+		} else {
+			int k = 1;
+			while (f(a - k * TAU, delta, phi2, v, a) < 0) {
+				k++;
+			}
+			highB = a - k * TAU;
+		}
+		
+		double fA = f(lowA, delta, phi2, v, a);
+		double fB = f(highB, delta, phi2, v, a);
+		while (Math.abs(highB - lowA) > EPSILON) {
+			double c = lowA + (lowA - highB) * fA / (fB - fA);
+			double fC = f(c, delta, phi2, v, a);
+			if (fC * fB <= 0) {
+				lowA = highB;
+				fA = fB;
+			} else {
+				fA = fA / 2.0;
+			}
+			highB = c;
+			fB = fC;
+		}
+		double newVolatility = Math.exp(lowA / 2.0);
+		
+		// Steps 6 and 7: new deviation and rating
+		double phiStar = Math.sqrt(phi2 + newVolatility * newVolatility);
+		double newPhi = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / v);
+		double newMu = mu + newPhi * newPhi * g * (score - e);
+		
+		// Step 8: convert back to the Glicko scale
+		rating = newMu * SCALE + 1500.0;
+		deviation = newPhi * SCALE;
+		volatility = newVolatility;
+	}
+	
+	private static double g(double phi) {
+		return 1.0 / Math.sqrt(1.0 + 3.0 * phi * phi / (Math.PI * Math.PI));
+	}
+	
+	private static double f(double x, double delta, double phi2, double v, double a) {
+		double ex = Math.exp(x);
+		double denom = phi2 + v + ex;
+		return ex * (delta * delta - phi2 - v - ex) / (2.0 * denom * denom) - (x - a) / (TAU * TAU);
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%.0f (RD %.0f)", rating, deviation);
+	}
+}
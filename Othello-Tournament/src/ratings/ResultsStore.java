@@ -0,0 +1,144 @@
+package ratings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * Keeps the results of every finished game in a tournament, along with each player's {@link EloRating} and {@link Glicko2Rating}.
+ * Ratings are updated as soon as a result is recorded, so they can be checked between games.
+ * 
+ * </br></br>
+ * A store can also run an {@link Sprt} between two players. 
+ * Once the test has reached a decision, {@link #isMatchDecided()} returns <b><i>true</i></b> and the tournament can stop early.
+ * 
+ * </br></br>
+ * All methods are synchronized, so one store can be shared by games running on different threads.
+ * 
+ * @see GameResult
+ */
+public class ResultsStore {
+	
+	private final List<GameResult> results = new ArrayList<GameResult>();
+	private final Map<String, EloRating> elo = new LinkedHashMap<String, EloRating>();
+	private final Map<String, Glicko2Rating> glicko = new LinkedHashMap<String, Glicko2Rating>();
+	private Sprt sprt;
+	
+	/**
+	 * Records a finished game and updates both players' ratings (and the {@link Sprt}, if one is running and the game is part of it).
+	 * 
+	 * @param result - the finished game
+	 */
+	public synchronized void record(GameResult result) {
+		results.add(result);
+		
+		String black = result.getBlack();
+		String white = result.getWhite();
+		double blackScore = result.scoreFor(black);
+		
+		EloRating.update(eloFor(black), eloFor(white), blackScore);
+		Glicko2Rating.update(glickoFor(black), glickoFor(white), blackScore);
+		
+		if (sprt != null && sprt.getDecision() == Sprt.Decision.CONTINUE && sprt.covers(result)) {
+			sprt.update(result.scoreFor(sprt.getPlayerA()));
+		}
+	}
+	
+	/**
+	 * Starts a new {@link Sprt} between two players. Only games recorded after this call are counted.
+	 * 
+	 * @param playerA - the name of the player being tested
+	 * @param playerB - the name of the baseline player
+	 * @param elo0 - the Elo difference under H0
+	 * @param elo1 - the Elo difference under H1
+	 * @param alpha - the probability of accepting H1 when H0 is true
+	 * @param beta - the probability of accepting H0 when H1 is true
+	 * @return the new test
+	 */
+	public synchronized Sprt startSprt(String playerA, String playerB, double elo0, double elo1, double alpha, double beta) {
+		sprt = new Sprt(playerA, playerB, elo0, elo1, alpha, beta);
+		return sprt;
+	}
+	
+	/**
+	 * 
+	 * @return the running {@link Sprt}, or <i>null</i> if none was started
+	 */
+	public synchronized Sprt getSprt() {
+		return sprt;
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if an {@link Sprt} is running and has accepted one of its hypotheses
+	 */
+	public synchronized boolean isMatchDecided() {
+		return sprt != null && sprt.getDecision() != Sprt.Decision.CONTINUE;
+	}
+	
+	/**
+	 * 
+	 * @return a read-only copy of every result recorded so far, in the order they were recorded
+	 */
+	public synchronized List<GameResult> getResults() {
+		return Collections.unmodifiableList(new ArrayList<GameResult>(results));
+	}
+	
+	/**
+	 * 
+	 * @param name - a player's name
+	 * @return the player's current Elo rating ({@link EloRating#INITIAL_RATING} if they haven't played yet)
+	 */
+	public synchronized double getElo(String name) {
+		EloRating r = elo.get(name);
+		return r == null ? EloRating.INITIAL_RATING : r.getRating();
+	}
+	
+	/**
+	 * 
+	 * @param name - a player's name
+	 * @return the player's current Glicko-2 rating, or <i>null</i> if they haven't played yet
+	 */
+	public synchronized Glicko2Rating getGlicko(String name) {
+		Glicko2Rating r = glicko.get(name);
+		return r == null ? null : new Glicko2Rating(r.getRating(), r.getDeviation(), r.getVolatility());
+	}
+	
+	/**
+	 * Returns a table with every player's ratings, plus the state of the {@link Sprt} if one is running.
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-30s %6s %16s %6s%n", "Player", "Elo", "Glicko-2", "Games"));
+		for (Map.Entry<String, EloRating> entry : elo.entrySet()) {
+			sb.append(String.format("%-30s %6s %16s %6d%n", entry.getKey(), entry.getValue(), 
+					glicko.get(entry.getKey()), entry.getValue().getGames()));
+		}
+		if (sprt != null) {
+			sb.append(sprt).append(String.format("%n"));
+		}
+		return sb.toString();
+	}
+	
+	private EloRating eloFor(String name) {
+		EloRating r = elo.get(name);
+		if (r == null) {
+			r = new EloRating();
+			elo.put(name, r);
+		}
+		return r;
+	}
+	
+	private Glicko2Rating glickoFor(String name) {
+		Glicko2Rating r = glicko.get(name);
+		if (r == null) {
+			r = new Glicko2Rating();
+			glicko.put(name, r);
+		}
+		return r;
+	}
+}
@@ -0,0 +1,200 @@
+package ratings;
+
+/**
+ * 
+ * A Sequential Probability Ratio Test between two players, used to stop an A/B match as soon as the results are significant.
+ * 
+ * </br></br>
+ * The test decides between two hypotheses about how much stronger player A is than player B, measured in Elo:
+ * <ul>
+ * <li><b>H0:</b> the difference is {@link #elo0} (usually 0, meaning "no improvement")</li>
+ * <li><b>H1:</b> the difference is {@link #elo1} (the smallest improvement worth detecting)</li>
+ * </ul>
+ * After every game {@link #update(double)} adds the result, and {@link #getDecision()} says whether either hypothesis can be accepted yet.
+ * The log-likelihood ratio uses the usual normal approximation of the trinomial (win/draw/loss) model.
+ * 
+ * </br></br>
+ * The methods that read or update the game counts are synchronized, so a test returned by {@link ResultsStore#getSprt()} 
+ * can be checked while the store is still recording games on another thread.
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #playerA}, {@link #playerB}, {@link #elo0}, {@link #elo1}, {@link #lowerBound}, {@link #upperBound}
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/Sequential_probability_ratio_test">Sequential probability ratio test</a>
+ */
+public class Sprt {
+	
+	/**
+	 * The possible states of the test.
+	 */
+	public enum Decision {
+		
+		/**
+		 * Not enough games have been played to accept either hypothesis.
+		 */
+		CONTINUE,
+		
+		/**
+		 * H0 was accepted: player A is not stronger than player B by {@link Sprt#elo1}.
+		 */
+		ACCEPT_H0,
+		
+		/**
+		 * H1 was accepted: player A is stronger than player B by at least {@link Sprt#elo1}.
+		 */
+		ACCEPT_H1
+	}
+	
+	/**
+	 * The name of the player being tested (typically the new AI revision).
+	 */
+	private final String playerA;
+	
+	/**
+	 * The name of the baseline player.
+	 */
+	private final String playerB;
+	
+	/**
+	 * The Elo difference under the null hypothesis.
+	 */
+	private final double elo0;
+	
+	/**
+	 * The Elo difference under the alternative hypothesis.
+	 */
+	private final double elo1;
+	
+	/**
+	 * H0 is accepted once the log-likelihood ratio drops to this value (ln(beta / (1 - alpha))).
+	 */
+	private final double lowerBound;
+	
+	/**
+	 * H1 is accepted once the log-likelihood ratio reaches this value (ln((1 - beta) / alpha)).
+	 */
+	private final double upperBound;
+	
+	private int wins;
+	private int draws;
+	private int losses;
+	
+	/**
+	 * Standard constructor for the Sprt class.
+	 * 
+	 * @param playerA - the name of the player being tested
+	 * @param playerB - the name of the baseline player
+	 * @param elo0 - the Elo difference under H0
+	 * @param elo1 - the Elo difference under H1 (must be greater than <i>elo0</i>)
+	 * @param alpha - the probability of accepting H1 when H0 is true
+	 * @param beta - the probability of accepting H0 when H1 is true
+	 */
+	public Sprt(String playerA, String playerB, double elo0, double elo1, double alpha, double beta) {
+		if (elo1 <= elo0) {
+			throw new IllegalArgumentException("elo1 must be greater than elo0");
+		}
+		if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+			throw new IllegalArgumentException("alpha and beta must be between 0 and 1");
+		}
+		this.playerA = playerA;
+		this.playerB = playerB;
+		this.elo0 = elo0;
+		this.elo1 = elo1;
+		this.lowerBound = Math.log(beta / (1.0 - alpha));
+		this.upperBound = Math.log((1.0 - beta) / alpha);
+	}
+	
+	/**
+	 * 
+	 * @return {@link #playerA}
+	 */
+	public String getPlayerA() {
+		return playerA;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #playerB}
+	 */
+	public String getPlayerB() {
+		return playerB;
+	}
+	
+	/**
+	 * 
+	 * @return the number of games included in the test so far
+	 */
+	public synchronized int getGames() {
+		return wins + draws + losses;
+	}
+	
+	/**
+	 * Checks whether a game was played between the two players under test.
+	 * 
+	 * @param result - a finished game
+	 * @return <b><i>true</i></b> if the game was between {@link #playerA} and {@link #playerB}
+	 */
+	public boolean covers(GameResult result) {
+		return (result.getBlack().equals(playerA) && result.getWhite().equals(playerB))
+			|| (result.getBlack().equals(playerB) && result.getWhite().equals(playerA));
+	}
+	
+	/**
+	 * Adds the result of one game to the test.
+	 * 
+	 * @param scoreA - player A's score (1 for a win, 0.5 for a draw, 0 for a loss)
+	 */
+	public synchronized void update(double scoreA) {
+		if (scoreA > 0.5) {
+			wins++;
+		} else if (scoreA < 0.5) {
+			losses++;
+		} else {
+			draws++;
+		}
+	}
+	
+	/**
+	 * Computes the log-likelihood ratio of H1 against H0 for the games played so far.
+	 * 
+	 * </br></br>
+	 * While every game has had the same result the score variance is zero and nothing can be concluded, so this returns 0 until then.
+	 * 
+	 * @return the log-likelihood ratio
+	 */
+	public synchronized double llr() {
+		int n = getGames();
+		if (n == 0) {
+			return 0.0;
+		}
+		double mean = (wins + 0.5 * draws) / n;
+		double variance = (wins + 0.25 * draws) / n - mean * mean;
+		if (variance <= 0) {
+			return 0.0;
+		}
+		double s0 = EloRating.expectedScore(elo0, 0);
+		double s1 = EloRating.expectedScore(elo1, 0);
+		return n * (s1 - s0) * (2.0 * mean - s0 - s1) / (2.0 * variance);
+	}
+	
+	/**
+	 * 
+	 * @return the current {@link Decision}
+	 */
+	public synchronized Decision getDecision() {
+		double llr = llr();
+		if (llr >= upperBound) {
+			return Decision.ACCEPT_H1;
+		} else if (llr <= lowerBound) {
+			return Decision.ACCEPT_H0;
+		} else {
+			return Decision.CONTINUE;
+		}
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return String.format("SPRT %s vs %s [%.1f, %.1f]: +%d =%d -%d, LLR %.2f (%.2f, %.2f) -> %s",
+				playerA, playerB, elo0, elo1, wins, draws, losses, llr(), lowerBound, upperBound, getDecision());
+	}
+}
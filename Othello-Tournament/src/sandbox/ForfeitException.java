@@ -0,0 +1,34 @@
+package sandbox;
+
+import components.Player;
+
+/**
+ * 
+ * Thrown by {@link SandboxedPlayer#makeMove(components.BoardSnapshot)} when a player has broken the rules of the sandbox 
+ * (gone over its {@link ResourceBudget}, or thrown an exception) and has to forfeit the game.
+ */
+public class ForfeitException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final transient Player player;
+	
+	/**
+	 * 
+	 * @param player - the player that forfeits
+	 * @param reason - why the player forfeits
+	 * @param cause - the exception the player threw, if any
+	 */
+	public ForfeitException(Player player, String reason, Throwable cause) {
+		super(player.getName() + " forfeits: " + reason, cause);
+		this.player = player;
+	}
+	
+	/**
+	 * 
+	 * @return the player that forfeits
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+}
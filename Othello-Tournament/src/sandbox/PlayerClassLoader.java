@@ -0,0 +1,57 @@
+package sandbox;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * 
+ * Loads one {@link components.Player} submission, keeping its class names separate from every other submission's and from the host's.
+ * 
+ * </br></br>
+ * The loader's parent is the platform class loader, so when a submission refers to a class by name, it gets either a Java platform class 
+ * or one of its own. The only exception is the shared {@link components} package, which comes from the host's class loader, 
+ * since the host and the submission have to agree on what a {@link components.Player} and a {@link components.Board} are. 
+ * That way two submissions can both ship a <code>players.Util</code> without clashing, and a submission can't accidentally 
+ * link against the host's own classes (like the game runner, its results and its journal).
+ * 
+ * </br></br>
+ * This is name-level separation only, not a security boundary. The submission runs in the host's JVM with the host's permissions, 
+ * so it can still reach any host class on purpose (e.g. through <code>Player.class.getClassLoader()</code> or 
+ * {@link ClassLoader#getSystemClassLoader()}), use reflection on it, or end the whole tournament with {@link System#exit(int)}. 
+ * Submissions that might do that on purpose have to be run in a separate process instead.
+ * 
+ * @see PlayerHost
+ */
+public class PlayerClassLoader extends URLClassLoader {
+	
+	/**
+	 * The only package that's shared with the host.
+	 */
+	private static final String SHARED_PACKAGE = "components.";
+	
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+	
+	private final ClassLoader host;
+	
+	/**
+	 * Standard constructor for the PlayerClassLoader class.
+	 * 
+	 * @param urls - the submission's classpath (a directory of .class files or a .jar)
+	 * @param host - the host's class loader, which provides the shared {@link components} package
+	 */
+	public PlayerClassLoader(URL[] urls, ClassLoader host) {
+		super(urls, ClassLoader.getPlatformClassLoader());
+		this.host = host;
+	}
+	
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if (name.startsWith(SHARED_PACKAGE)) {
+			return host.loadClass(name);
+		}
+		// Platform classes first (a submission can't replace those), then the submission's own
+		return super.loadClass(name, resolve);
+	}
+}
@@ -0,0 +1,155 @@
+package sandbox;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import components.Color;
+import components.Player;
+
+/**
+ * 
+ * Loads {@link Player} submissions into sandboxes, so dozens of third-party AIs can share one host with their resource use measured and limited.
+ * 
+ * </br></br>
+ * Each submission gets its own {@link PlayerClassLoader}, and each Player created runs as a {@link SandboxedPlayer} 
+ * with its own {@link ResourceBudget}:
+ * 
+ * <pre>
+ * 	PlayerHost host = new PlayerHost(ResourceBudget.defaultBudget());
+ * 	Player p1 = host.load(Paths.get("submissions/alice.jar"), "players.AliceAI", "Alice", Color.B);
+ * 	Player p2 = host.load(Paths.get("submissions/bob"), "players.BobAI", "Bob", Color.W);
+ * </pre>
+ * 
+ * The submission's class needs a public constructor that takes a name and a {@link Color}, just like {@link Player#Player(String, Color)}.
+ * 
+ * </br></br>
+ * A player that ignores being interrupted keeps its thread running after it's closed, using up a core every later game needs. 
+ * The host keeps track of these runaways, and while there are more than it allows (even after giving them {@link #RUNAWAY_GRACE_NANOS} to stop), 
+ * {@link #load(Path, String, String, Color)} refuses to load anything else. 
+ * 
+ * </br></br>
+ * The sandbox is about fair resource accounting, not security: submissions run in the host's JVM and can get around it 
+ * (see {@link PlayerClassLoader}), so only load submissions from people you trust not to attack the host.
+ * 
+ * @see SandboxedPlayer
+ */
+public class PlayerHost {
+	
+	/**
+	 * The number of runaway threads a host allows by default: none, since every one of them slows down every game after it.
+	 */
+	public static final int DEFAULT_MAX_RUNAWAYS = 0;
+	
+	/**
+	 * How long (two seconds) {@link #load(Path, String, String, Color)} waits for runaway threads to stop before giving up, 
+	 * since a player that's just slow to notice it was interrupted will still stop on its own.
+	 */
+	public static final long RUNAWAY_GRACE_NANOS = 2000000000L;
+	
+	private final ResourceBudget budget;
+	private final int maxRunaways;
+	
+	/**
+	 * Every player loaded by this host whose thread might still be running.
+	 */
+	private final List<SandboxedPlayer> players = new ArrayList<SandboxedPlayer>();
+	
+	/**
+	 * Standard constructor for the PlayerHost class. No runaway threads are allowed (see {@link #DEFAULT_MAX_RUNAWAYS}).
+	 * 
+	 * @param budget - the resources each Player loaded by this host can use per game
+	 */
+	public PlayerHost(ResourceBudget budget) {
+		this(budget, DEFAULT_MAX_RUNAWAYS);
+	}
+	
+	/**
+	 * Creates a host that allows a number of runaway threads before it stops loading players.
+	 * 
+	 * @param budget - the resources each Player loaded by this host can use per game
+	 * @param maxRunaways - how many players can still be running after being closed before {@link #load(Path, String, String, Color)} fails
+	 */
+	public PlayerHost(ResourceBudget budget, int maxRunaways) {
+		if (maxRunaways < 0) {
+			throw new IllegalArgumentException("maxRunaways can't be negative");
+		}
+		this.budget = budget;
+		this.maxRunaways = maxRunaways;
+	}
+	
+	/**
+	 * Lists the players that were closed but are still running, because they ignored being interrupted.
+	 * 
+	 * @return the runaway players loaded by this host
+	 */
+	public synchronized List<SandboxedPlayer> getRunaways() {
+		List<SandboxedPlayer> runaways = new ArrayList<SandboxedPlayer>();
+		for (Iterator<SandboxedPlayer> it = players.iterator(); it.hasNext();) {
+			SandboxedPlayer p = it.next();
+			if (p.isRunaway()) {
+				runaways.add(p);
+			} else if (p.isClosed()) {
+				// Its thread has stopped, so there's nothing left to keep track of
+				it.remove();
+			}
+		}
+		return runaways;
+	}
+	
+	/**
+	 * Loads a Player submission in its own class loader and constructs it inside a sandbox.
+	 * 
+	 * @param classpath - the submission's compiled classes (a directory or a .jar file)
+	 * @param className - the fully qualified name of the submission's Player class
+	 * @param name - the player's name
+	 * @param color - the player's {@link Color} for the first game
+	 * @return the sandboxed player. Close it when the game is over to release its thread and class loader.
+	 * @throws IOException if the submission can't be found or isn't a Player
+	 * @throws ForfeitException if the submission's constructor fails or goes over budget
+	 * @throws IllegalStateException if more players than this host allows are still running after being closed
+	 */
+	public synchronized SandboxedPlayer load(Path classpath, String className, String name, Color color) throws IOException {
+		List<SandboxedPlayer> runaways = getRunaways();
+		if (runaways.size() > maxRunaways) {
+			long deadline = System.nanoTime() + RUNAWAY_GRACE_NANOS;
+			for (SandboxedPlayer p : runaways) {
+				p.awaitStopped(Math.max(0, deadline - System.nanoTime()));
+			}
+			runaways = getRunaways();
+		}
+		if (runaways.size() > maxRunaways) {
+			StringBuilder names = new StringBuilder();
+			for (SandboxedPlayer p : runaways) {
+				names.append(names.length() == 0 ? "" : ", ").append(p.getName());
+			}
+			throw new IllegalStateException("Not loading " + name + ": " + runaways.size() + " closed player(s) still have threads running (" 
+					+ names + "), so games would no longer get the CPU they're budgeted. Restart the host if they never stop.");
+		}
+		
+		PlayerClassLoader loader;
+		try {
+			loader = new PlayerClassLoader(new URL[] { classpath.toUri().toURL() }, Player.class.getClassLoader());
+		} catch (MalformedURLException e) {
+			throw new IOException("Bad submission path: " + classpath, e);
+		}
+		
+		Class<? extends Player> playerClass;
+		try {
+			playerClass = Class.forName(className, false, loader).asSubclass(Player.class);
+		} catch (ClassNotFoundException | ClassCastException e) {
+			loader.close();
+			throw new IOException(className + " isn't a Player class in " + classpath, e);
+		}
+		
+		// Keep track of the player before running any of its code, in case its constructor is what runs away
+		SandboxedPlayer player = new SandboxedPlayer(name, color, loader, budget);
+		players.add(player);
+		player.construct(playerClass);
+		return player;
+	}
+}
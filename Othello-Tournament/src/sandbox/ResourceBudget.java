@@ -0,0 +1,75 @@
+package sandbox;
+
+/**
+ * 
+ * The resources a {@link SandboxedPlayer} is allowed to use over one game. 
+ * A player that goes over any of these limits forfeits the game.
+ * 
+ * </br></br>
+ * <b>Fields:</b> {@link #cpuNanos}, {@link #allocatedBytes}, {@link #moveWallNanos}
+ */
+public class ResourceBudget {
+	
+	/**
+	 * The total CPU time the player's moves can use in one game, in nanoseconds.
+	 */
+	private final long cpuNanos;
+	
+	/**
+	 * The total number of bytes the player's moves can allocate in one game. 
+	 * (This counts every allocation, including garbage that has since been collected, so it limits allocation rate rather than heap size.)
+	 */
+	private final long allocatedBytes;
+	
+	/**
+	 * The longest a single move can take in real time, in nanoseconds. 
+	 * This catches players that sleep or block instead of using CPU.
+	 */
+	private final long moveWallNanos;
+	
+	/**
+	 * Standard constructor for the ResourceBudget class.
+	 * 
+	 * @param cpuNanos - the total CPU time allowed per game, in nanoseconds
+	 * @param allocatedBytes - the total allocation allowed per game, in bytes
+	 * @param moveWallNanos - the real time allowed per move, in nanoseconds
+	 */
+	public ResourceBudget(long cpuNanos, long allocatedBytes, long moveWallNanos) {
+		this.cpuNanos = cpuNanos;
+		this.allocatedBytes = allocatedBytes;
+		this.moveWallNanos = moveWallNanos;
+	}
+	
+	/**
+	 * A budget suitable for most AIs: 60 seconds of CPU time and 4 GB of allocation per game, and at most 30 seconds per move.
+	 * 
+	 * @return the default budget
+	 */
+	public static ResourceBudget defaultBudget() {
+		return new ResourceBudget(60000000000L, 4L << 30, 30000000000L);
+	}
+	
+	/**
+	 * 
+	 * @return {@link #cpuNanos}
+	 */
+	public long getCpuNanos() {
+		return cpuNanos;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #allocatedBytes}
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+	
+	/**
+	 * 
+	 * @return {@link #moveWallNanos}
+	 */
+	public long getMoveWallNanos() {
+		return moveWallNanos;
+	}
+}
@@ -0,0 +1,407 @@
+package sandbox;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import components.Board;
+import components.BoardSnapshot;
+import components.Color;
+import components.Coordinate;
+import components.NodeCounter;
+import components.Player;
+
+/**
+ * 
+ * A {@link Player} that runs another Player (usually a third-party submission loaded by {@link PlayerHost}) in a sandbox.
+ * 
+ * </br></br>
+ * The sandboxed player:
+ * <ul>
+ * <li>runs on its own thread, with its own {@link PlayerClassLoader} as the context class loader</li>
+ * <li>reports its search speed through {@link Player#reportNodes(long)}, which is passed on to whatever counter the game connects to the sandbox</li>
+ * <li>gets an immutable {@link BoardSnapshot} (or, if it doesn't accept snapshots, a private copy) instead of the game board, 
+ * so it can't change the state of the game</li>
+ * <li>has its CPU time and allocations measured with {@link java.lang.management.ThreadMXBean} while it moves, 
+ * and forfeits (with a {@link ForfeitException}) as soon as it goes over its {@link ResourceBudget}</li>
+ * </ul>
+ * Only the player's own thread is measured, and work done on threads the player starts itself isn't counted. 
+ * A thread can't be stopped from outside, so a player that ignores interruption keeps running after it forfeits or is closed. 
+ * {@link #close()} gives the thread a moment to stop; if it's still running after that, the player is a runaway, 
+ * and its {@link PlayerHost} refuses to load more players once it has too many of those (see {@link PlayerHost#getRunaways()}).
+ * 
+ * </br></br>
+ * The sandbox measures and limits what a well-behaved player uses. It is not a security boundary (see {@link PlayerClassLoader}).
+ * 
+ * @see PlayerHost
+ */
+public class SandboxedPlayer extends Player implements AutoCloseable {
+	
+	/**
+	 * How often the resource usage of a move in progress is checked, in nanoseconds.
+	 */
+	private static final long POLL_NANOS = 10000000L;
+	
+	/**
+	 * How long {@link #close()} waits for the player's thread to stop, in nanoseconds.
+	 */
+	private static final long CLOSE_WAIT_NANOS = 100000000L;
+	
+	private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	
+	static {
+		if (THREADS.isThreadCpuTimeSupported()) {
+			THREADS.setThreadCpuTimeEnabled(true);
+		}
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported()) {
+				threads.setThreadAllocatedMemoryEnabled(true);
+			}
+		}
+	}
+	
+	private final ResourceBudget budget;
+	private final PlayerClassLoader loader;
+	private final ExecutorService executor;
+	private volatile Thread worker;
+	private Player delegate;
+	
+	/**
+	 * Held for the whole of each move, so moves run one at a time. 
+	 * The totals below are only written while it's held, and are volatile so they can be read at any time without waiting for a move.
+	 */
+	private final Object moveLock = new Object();
+	private volatile boolean forfeited;
+	private volatile boolean closed;
+	private volatile long cpuNanosUsed;
+	private volatile long allocatedBytesUsed;
+	
+	/**
+	 * Creates the sandbox. The player itself is constructed by {@link #construct(Class)}.
+	 * 
+	 * @param name - the player's name
+	 * @param color - the player's {@link Color} for the current game
+	 * @param loader - the class loader the player's class was loaded by
+	 * @param budget - the resources the player can use per game
+	 */
+	SandboxedPlayer(final String name, Color color, PlayerClassLoader loader, ResourceBudget budget) {
+		super(name, color);
+		this.budget = budget;
+		this.loader = loader;
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "sandbox-" + name);
+				t.setDaemon(true);
+				t.setContextClassLoader(SandboxedPlayer.this.loader);
+				worker = t;
+				return t;
+			}
+		});
+	}
+	
+	/**
+	 * Constructs the player inside the sandbox. The player's constructor counts against its budget too. 
+	 * This is separate from the sandbox's own constructor so {@link PlayerHost} can keep track of the sandbox's thread 
+	 * even if the player's constructor never finishes.
+	 * 
+	 * @param playerClass - the player's class
+	 * @throws ForfeitException if the player's constructor fails or goes over budget (the sandbox is closed when that happens)
+	 */
+	void construct(final Class<? extends Player> playerClass) {
+		final String n = name;
+		final Color c = color;
+		try {
+			this.delegate = run("its constructor threw an exception", new Callable<Player>() {
+				@Override
+				public Player call() throws Exception {
+					return playerClass.getConstructor(String.class, Color.class).newInstance(n, c);
+				}
+			});
+		} catch (ForfeitException e) {
+			close();
+			throw e;
+		}
+		
+		// The submission's class loader doesn't link it against the host's statistics, so its node counts go through the sandbox
+		delegate.setNodeCounter(new NodeCounter() {
+			@Override
+			public void addNodes(long count) {
+				reportNodes(count);
+			}
+		});
+	}
+	
+	/**
+	 * Asks the sandboxed player for a move. Players that accept snapshots get a {@link BoardSnapshot} of <i>board</i>; 
+	 * everyone else gets a private {@link Board#clone()} of it, so nothing they do can change the game.
+	 * 
+	 * @throws ForfeitException if the player goes over its budget, throws an exception, or doesn't return a move
+	 */
+	@Override
+	public Coordinate makeMove(Board board) {
+		if (delegate.acceptsSnapshots() && board.getWidth() == BoardSnapshot.WIDTH) {
+			return makeMove(board.snapshot(color));
+		}
+		
+		final Board copy = board.clone();
+		final Color c = color;
+		return checkMove(run("it threw an exception while moving", new Callable<Coordinate>() {
+			@Override
+			public Coordinate call() {
+				delegate.setColor(c);
+				return delegate.makeMove(copy);
+			}
+		}));
+	}
+	
+	/**
+	 * Asks the sandboxed player for a move. Snapshots can't be changed, so the player gets the same one the game has.
+	 * 
+	 * @throws ForfeitException if the player goes over its budget, throws an exception, or doesn't return a move
+	 */
+	@Override
+	public Coordinate makeMove(final BoardSnapshot snapshot) {
+		final Color c = color;
+		return checkMove(run("it threw an exception while moving", new Callable<Coordinate>() {
+			@Override
+			public Coordinate call() {
+				delegate.setColor(c);
+				return delegate.makeMove(snapshot);
+			}
+		}));
+	}
+	
+	/**
+	 * The sandboxed player accepts snapshots if the Player it runs does.
+	 */
+	@Override
+	public boolean acceptsSnapshots() {
+		return delegate.acceptsSnapshots();
+	}
+	
+	/**
+	 * 
+	 * @return the CPU time the player has used so far, in nanoseconds
+	 */
+	public long getCpuNanosUsed() {
+		return cpuNanosUsed;
+	}
+	
+	/**
+	 * 
+	 * @return the number of bytes the player has allocated so far
+	 */
+	public long getAllocatedBytesUsed() {
+		return allocatedBytesUsed;
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if the player has forfeited
+	 */
+	public boolean hasForfeited() {
+		return forfeited;
+	}
+	
+	/**
+	 * Interrupts the player's thread, waits up to {@link #CLOSE_WAIT_NANOS} for it to stop, and releases its class loader.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		executor.shutdownNow();
+		awaitStopped(CLOSE_WAIT_NANOS);
+		try {
+			loader.close();
+		} catch (IOException e) {
+			// Nothing else to clean up; the loader's files are closed as far as they can be
+		}
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if the player has been closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+	
+	/**
+	 * 
+	 * @return <b><i>true</i></b> if the player has been closed but its thread is still running (because it ignored being interrupted)
+	 */
+	public boolean isRunaway() {
+		Thread t = worker;
+		return closed && t != null && t.isAlive();
+	}
+	
+	/**
+	 * Waits for the player's thread to stop, for at most <i>nanos</i> nanoseconds.
+	 */
+	void awaitStopped(long nanos) {
+		Thread t = worker;
+		try {
+			// The executor counts as terminated a moment before its thread actually exits, so wait on the thread itself
+			if (t != null) {
+				TimeUnit.NANOSECONDS.timedJoin(t, nanos);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Runs <i>task</i> on the player's thread, checking its resource usage every {@link #POLL_NANOS} until it finishes.
+	 */
+	private <T> T run(String failure, final Callable<T> task) {
+		synchronized (moveLock) {
+			return runLocked(failure, task);
+		}
+	}
+	
+	private <T> T runLocked(String failure, final Callable<T> task) {
+		if (forfeited) {
+			throw new ForfeitException(this, "it has already forfeited", null);
+		}
+		
+		// The worker measures its own usage, so moves that finish between polls are still charged exactly
+		final Usage usage = new Usage();
+		Future<T> future = executor.submit(new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				synchronized (usage) {
+					usage.cpuStart = cpuTime();
+					usage.allocatedStart = allocatedBytes();
+				}
+				try {
+					return task.call();
+				} finally {
+					synchronized (usage) {
+						usage.cpuNanos = cpuTime() - usage.cpuStart;
+						usage.allocatedBytes = allocatedBytes() - usage.allocatedStart;
+						usage.finished = true;
+					}
+				}
+			}
+		});
+		
+		long start = System.nanoTime();
+		while (true) {
+			try {
+				T result = future.get(POLL_NANOS, TimeUnit.NANOSECONDS);
+				charge(usage);
+				checkBudget(0, 0);
+				return result;
+			} catch (TimeoutException e) {
+				// Still running, check on it below
+			} catch (ExecutionException e) {
+				charge(usage);
+				throw forfeit(failure, e.getCause());
+			} catch (InterruptedException e) {
+				measureRunning(usage);
+				charge(usage);
+				future.cancel(true);
+				Thread.currentThread().interrupt();
+				throw forfeit("the game was interrupted", e);
+			}
+			
+			measureRunning(usage);
+			try {
+				synchronized (usage) {
+					checkBudget(usage.cpuNanos, usage.allocatedBytes);
+				}
+				if (System.nanoTime() - start > budget.getMoveWallNanos()) {
+					throw forfeit("it took longer than " + budget.getMoveWallNanos() / 1000000 + " ms to move", null);
+				}
+			} catch (ForfeitException e) {
+				// Charge what the move used before it was stopped, so the totals show how far over budget it went
+				charge(usage);
+				future.cancel(true);
+				throw e;
+			}
+		}
+	}
+	
+	/**
+	 * Updates the usage of a task that's still running with what it has used so far.
+	 */
+	private void measureRunning(Usage usage) {
+		synchronized (usage) {
+			if (usage.cpuStart >= 0 && !usage.finished) {
+				usage.cpuNanos = cpuTime() - usage.cpuStart;
+				usage.allocatedBytes = allocatedBytes() - usage.allocatedStart;
+			}
+		}
+	}
+	
+	/**
+	 * Adds the resources a task used to the running totals.
+	 */
+	private void charge(Usage usage) {
+		synchronized (usage) {
+			cpuNanosUsed += usage.cpuNanos;
+			allocatedBytesUsed += usage.allocatedBytes;
+		}
+	}
+	
+	/**
+	 * Forfeits the player if it didn't return a move.
+	 */
+	private Coordinate checkMove(Coordinate move) {
+		if (move == null) {
+			throw forfeit("it didn't return a move", null);
+		}
+		return move;
+	}
+	
+	/**
+	 * Forfeits the player if its usage so far, plus the usage of the move in progress, is over budget.
+	 */
+	private void checkBudget(long moveCpuNanos, long moveAllocatedBytes) {
+		if (cpuNanosUsed + moveCpuNanos > budget.getCpuNanos()) {
+			throw forfeit("it used more than " + budget.getCpuNanos() / 1000000 + " ms of CPU time", null);
+		}
+		if (allocatedBytesUsed + moveAllocatedBytes > budget.getAllocatedBytes()) {
+			throw forfeit("it allocated more than " + budget.getAllocatedBytes() + " bytes", null);
+		}
+	}
+	
+	private ForfeitException forfeit(String reason, Throwable cause) {
+		forfeited = true;
+		return new ForfeitException(this, reason, cause);
+	}
+	
+	private long cpuTime() {
+		Thread t = worker;
+		return t == null || !THREADS.isThreadCpuTimeEnabled() ? 0 : Math.max(0, THREADS.getThreadCpuTime(t.getId()));
+	}
+	
+	private long allocatedBytes() {
+		Thread t = worker;
+		if (t == null || !(THREADS instanceof com.sun.management.ThreadMXBean)) {
+			return 0;
+		}
+		return Math.max(0, ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(t.getId()));
+	}
+	
+	/**
+	 * The worker thread's CPU and allocation counters at the start of a task (-1 until it starts), 
+	 * and how much the task has used (so far, until it's finished).
+	 */
+	private static class Usage {
+		long cpuStart = -1;
+		long allocatedStart = -1;
+		long cpuNanos;
+		long allocatedBytes;
+		boolean finished;
+	}
+}